@@ -7,6 +7,7 @@ class Allocation {
     private LocalDate allocationDate;
     private LocalDate checkoutDate;
     private String status;
+    private long version;
     
     public Allocation(String allocationId, Student student, Room room, LocalDate allocationDate) {
         this.allocationId = allocationId;
@@ -35,6 +36,8 @@ class Allocation {
     public void setCheckoutDate(LocalDate checkoutDate) { this.checkoutDate = checkoutDate; }
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
     
     @Override
     public String toString() {
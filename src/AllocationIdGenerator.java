@@ -0,0 +1,52 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Hi/lo generator: reserves a block of numbers from the id_sequences table in one round
+// trip and hands them out from memory. Numbers left in a block when the process exits are
+// skipped, so IDs are unique and increasing per instance but not gap-free.
+class AllocationIdGenerator {
+    static final String PREFIX = "ALLOC";
+
+    private final MySQLDatabaseManager dbManager;
+    private final int blockSize;
+    private long next;
+    private long limit;
+
+    public AllocationIdGenerator(MySQLDatabaseManager dbManager, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.dbManager = dbManager;
+        this.blockSize = blockSize;
+    }
+
+    public synchronized String nextId() throws SQLException {
+        if (next >= limit) {
+            next = dbManager.reserveAllocationNumbers(blockSize);
+            limit = next + blockSize;
+        }
+        return format(next++);
+    }
+
+    // Uses what is left of the current block, then reserves the remainder in one round trip.
+    public synchronized List<String> nextIds(int count) throws SQLException {
+        List<String> ids = new ArrayList<>(count);
+        while (ids.size() < count && next < limit) {
+            ids.add(format(next++));
+        }
+        int remaining = count - ids.size();
+        if (remaining > 0) {
+            long first = dbManager.reserveAllocationNumbers(remaining);
+            for (long number = first; number < first + remaining; number++) {
+                ids.add(format(number));
+            }
+        }
+        return ids;
+    }
+
+    // Keeps the historical ALLOC0001 shape; numbers past 9999 simply grow wider (ALLOC10000).
+    static String format(long number) {
+        return PREFIX + String.format("%04d", number);
+    }
+}
@@ -0,0 +1,156 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+
+// In-memory view of the waitlist table: one priority queue per room type, so joins for
+// different types never contend, and a single processor thread that hands freed beds to
+// the head of the matching queue. The table is the source of truth; queues are rebuilt
+// from it at startup, and each assignment re-checks the row, so a restart or a competing
+// instance cannot serve an entry twice or lose its position.
+class AllocationWaitlist {
+    enum Assignment { ALLOCATED, ROOM_FULL, STALE, FAILED }
+
+    interface Assigner {
+        // Rooms of roomType with at least one free bed.
+        List<Room> freeRooms(String roomType);
+        Assignment assign(WaitlistEntry entry, String roomNumber);
+    }
+
+    static final Comparator<WaitlistEntry> ORDER = Comparator
+        .comparingInt(WaitlistEntry::getPriority).reversed()
+        .thenComparing(WaitlistEntry::getRequestedAt)
+        .thenComparingLong(WaitlistEntry::getWaitlistId);
+
+    private final Assigner assigner;
+    private final Map<String, PriorityBlockingQueue<WaitlistEntry>> queues = new ConcurrentHashMap<>();
+    private final Map<Long, WaitlistEntry> byId = new ConcurrentHashMap<>();
+    // Room types with a drain scheduled but not yet started; repeated signals collapse into one.
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+    private final ExecutorService processor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "waitlist-processor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AllocationWaitlist(Assigner assigner) {
+        this.assigner = assigner;
+    }
+
+    // Replaces the queues with the waiting rows and tries every type once, since beds may
+    // have been freed while this instance was not running.
+    public void load(List<WaitlistEntry> waiting) {
+        queues.clear();
+        byId.clear();
+        for (WaitlistEntry entry : waiting) {
+            add(entry);
+        }
+        for (String roomType : queues.keySet()) {
+            bedsFreed(roomType);
+        }
+    }
+
+    public void add(WaitlistEntry entry) {
+        if (!entry.isWaiting() || byId.putIfAbsent(entry.getWaitlistId(), entry) != null) {
+            return;
+        }
+        queueFor(entry.getRoomType()).offer(entry);
+    }
+
+    public boolean remove(long waitlistId) {
+        WaitlistEntry entry = byId.remove(waitlistId);
+        return entry != null && queueFor(entry.getRoomType()).remove(entry);
+    }
+
+    public void removeStudent(String studentId) {
+        for (WaitlistEntry entry : byId.values()) {
+            if (entry.getStudentId().equals(studentId)) {
+                remove(entry.getWaitlistId());
+            }
+        }
+    }
+
+    // Applies the current row for an entry changed elsewhere; null means it no longer exists.
+    public void refresh(long waitlistId, WaitlistEntry current) {
+        if (current != null && current.isWaiting()) {
+            add(current);
+            bedsFreed(current.getRoomType());
+        } else {
+            remove(waitlistId);
+        }
+    }
+
+    public void bedsFreed(String roomType) {
+        String type = normalize(roomType);
+        PriorityBlockingQueue<WaitlistEntry> queue = queues.get(type);
+        if (queue != null && !queue.isEmpty() && scheduled.add(type)) {
+            processor.execute(() -> {
+                scheduled.remove(type);
+                drain(type);
+            });
+        }
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    // Snapshot of every waiting entry, by room type and then queue order.
+    public List<WaitlistEntry> snapshot() {
+        List<WaitlistEntry> entries = new ArrayList<>(byId.values());
+        entries.sort(Comparator.comparing((WaitlistEntry e) -> normalize(e.getRoomType())).thenComparing(ORDER));
+        return entries;
+    }
+
+    public void stop() {
+        processor.shutdownNow();
+    }
+
+    private void drain(String roomType) {
+        PriorityBlockingQueue<WaitlistEntry> queue = queueFor(roomType);
+        try {
+            while (!queue.isEmpty()) {
+                boolean progressed = false;
+                for (Room room : assigner.freeRooms(roomType)) {
+                    for (int bed = 0; bed < room.getAvailableBeds(); bed++) {
+                        WaitlistEntry entry = queue.poll();
+                        if (entry == null) {
+                            return;
+                        }
+                        Assignment result = assigner.assign(entry, room.getRoomNumber());
+                        if (result == Assignment.ALLOCATED || result == Assignment.STALE) {
+                            byId.remove(entry.getWaitlistId());
+                            progressed = true;
+                            continue;
+                        }
+                        // Keeps its place: the room filled up under us, or the database failed.
+                        queue.offer(entry);
+                        if (result == Assignment.FAILED) {
+                            return;
+                        }
+                        break;
+                    }
+                }
+                if (!progressed) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error processing waitlist: " + e.getMessage());
+        }
+    }
+
+    private PriorityBlockingQueue<WaitlistEntry> queueFor(String roomType) {
+        return queues.computeIfAbsent(normalize(roomType), t -> new PriorityBlockingQueue<>(16, ORDER));
+    }
+
+    // Matches RoomAvailabilityIndex, which compares trimmed room types.
+    private static String normalize(String roomType) {
+        return roomType == null ? "" : roomType.trim();
+    }
+}
@@ -0,0 +1,93 @@
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+// Runs data loads on SwingWorker threads and hands results back on the EDT. Loads are keyed:
+// starting a load for a key supersedes the previous one, whose result is then discarded.
+// All methods must be called on the EDT.
+class BackgroundLoader {
+    interface LoadingListener {
+        void loadingChanged(String key, boolean loading);
+    }
+
+    private final Map<String, SwingWorker<?, ?>> active = new HashMap<>();
+    private final LoadingListener listener;
+
+    public BackgroundLoader(LoadingListener listener) {
+        this.listener = listener;
+    }
+
+    public <T> void load(String key, Callable<T> task, Consumer<? super T> onSuccess) {
+        SwingWorker<?, ?> previous = active.get(key);
+        if (previous != null) {
+            // Not interrupted: the JDBC call finishes on its pooled connection and its result is ignored.
+            previous.cancel(false);
+        }
+        SwingWorker<T, Void> worker = new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return task.call();
+            }
+
+            @Override
+            protected void done() {
+                if (active.get(key) != this) {
+                    return;
+                }
+                active.remove(key);
+                listener.loadingChanged(key, false);
+                if (!isCancelled()) {
+                    deliver(this, key, onSuccess);
+                }
+            }
+        };
+        active.put(key, worker);
+        if (previous == null) {
+            listener.loadingChanged(key, true);
+        }
+        worker.execute();
+    }
+
+    // For one-off work such as writes, which must not be superseded by a later call.
+    public <T> void submit(String description, Callable<T> task, Consumer<? super T> onSuccess) {
+        new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return task.call();
+            }
+
+            @Override
+            protected void done() {
+                deliver(this, description, onSuccess);
+            }
+        }.execute();
+    }
+
+    public boolean isLoading(String key) {
+        return active.containsKey(key);
+    }
+
+    public void cancel(String key) {
+        SwingWorker<?, ?> worker = active.remove(key);
+        if (worker != null) {
+            worker.cancel(false);
+            listener.loadingChanged(key, false);
+        }
+    }
+
+    private static <T> void deliver(SwingWorker<T, Void> worker, String key, Consumer<? super T> onSuccess) {
+        assert SwingUtilities.isEventDispatchThread();
+        try {
+            onSuccess.accept(worker.get());
+        } catch (ExecutionException e) {
+            System.err.println("Error loading " + key + ": " + e.getCause().getMessage());
+            e.getCause().printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
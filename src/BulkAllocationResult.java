@@ -0,0 +1,77 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+class BulkAllocationResult {
+    enum Outcome { PLANNED, ALLOCATED, ALREADY_ALLOCATED, NO_BED, FAILED }
+
+    static class Placement {
+        private final Student student;
+        private final String roomNumber;
+        private final String allocationId;
+        private final Outcome outcome;
+        private final String message;
+
+        Placement(Student student, String roomNumber, String allocationId, Outcome outcome, String message) {
+            this.student = student;
+            this.roomNumber = roomNumber;
+            this.allocationId = allocationId;
+            this.outcome = outcome;
+            this.message = message;
+        }
+
+        Placement withAllocationId(String allocationId) {
+            return new Placement(student, roomNumber, allocationId, outcome, message);
+        }
+
+        Placement withOutcome(Outcome outcome, String message) {
+            return new Placement(student, roomNumber, allocationId, outcome, message);
+        }
+
+        public Student getStudent() { return student; }
+        public String getStudentId() { return student.getStudentId(); }
+        // Null unless a room was planned or allocated.
+        public String getRoomNumber() { return roomNumber; }
+        public String getAllocationId() { return allocationId; }
+        public Outcome getOutcome() { return outcome; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return getStudentId() + ": " + outcome + (roomNumber != null ? " -> " + roomNumber : "") +
+                   (message != null ? " (" + message + ")" : "");
+        }
+    }
+
+    private final List<Placement> placements;
+    private final boolean dryRun;
+    private final long elapsedMillis;
+
+    BulkAllocationResult(List<Placement> placements, boolean dryRun, long elapsedMillis) {
+        this.placements = Collections.unmodifiableList(new ArrayList<>(placements));
+        this.dryRun = dryRun;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<Placement> getPlacements() { return placements; }
+    public boolean isDryRun() { return dryRun; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public int count(Outcome outcome) {
+        int count = 0;
+        for (Placement placement : placements) {
+            if (placement.getOutcome() == outcome) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return (dryRun ? "Dry run" : "Bulk allocation") + " | Students: " + placements.size() +
+               (dryRun ? " | Planned: " + count(Outcome.PLANNED) : " | Allocated: " + count(Outcome.ALLOCATED)) +
+               " | Already allocated: " + count(Outcome.ALREADY_ALLOCATED) + " | No bed: " + count(Outcome.NO_BED) +
+               " | Failed: " + count(Outcome.FAILED) + " | Time: " + elapsedMillis + " ms";
+    }
+}
@@ -0,0 +1,200 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Places many students at once. The plan is computed in memory against a snapshot of the
+// availability index, then committed through HostelManager.allocateBeds in batched
+// transactions. A dry run returns the plan without touching the database.
+class BulkAllocator {
+    static class Constraints {
+        private boolean groupByDepartment;
+        private List<String> preferredRoomTypes = Collections.emptyList();
+        private boolean preferredTypesOnly;
+        private Set<String> floors;
+        private int maxPerFloor;
+        private double maxRentPerBed;
+
+        // Fills whole rooms with one department before mixing departments.
+        public Constraints groupByDepartment(boolean group) {
+            this.groupByDepartment = group;
+            return this;
+        }
+
+        // Room types in order of preference; with onlyThese, other types are never used.
+        public Constraints preferRoomTypes(List<String> roomTypes, boolean onlyThese) {
+            this.preferredRoomTypes = new ArrayList<>(roomTypes);
+            this.preferredTypesOnly = onlyThese;
+            return this;
+        }
+
+        // Null or empty allows every floor.
+        public Constraints floors(Collection<String> floors) {
+            this.floors = floors == null || floors.isEmpty() ? null : new HashSet<>(floors);
+            return this;
+        }
+
+        // Most new placements per floor in this run; 0 for no limit.
+        public Constraints maxPerFloor(int maxPerFloor) {
+            this.maxPerFloor = maxPerFloor;
+            return this;
+        }
+
+        // 0 for no cap.
+        public Constraints maxRentPerBed(double maxRentPerBed) {
+            this.maxRentPerBed = maxRentPerBed;
+            return this;
+        }
+    }
+
+    // A room with free beds as seen by the planner; free counts down as beds are planned.
+    private static class Candidate {
+        final Room room;
+        final int typeRank;
+        final boolean empty;
+        int free;
+
+        Candidate(Room room, int typeRank) {
+            this.room = room;
+            this.typeRank = typeRank;
+            this.empty = room.getOccupied() == 0;
+            this.free = room.getAvailableBeds();
+        }
+    }
+
+    private final HostelManager hostelManager;
+
+    public BulkAllocator(HostelManager hostelManager) {
+        this.hostelManager = hostelManager;
+    }
+
+    // Outcomes are returned in the order the students were given.
+    public BulkAllocationResult allocate(Collection<Student> students, Constraints constraints, boolean dryRun) {
+        long start = System.currentTimeMillis();
+        Map<String, BulkAllocationResult.Placement> outcomes = new LinkedHashMap<>();
+        List<Student> pending = new ArrayList<>();
+        for (Student student : students) {
+            if (outcomes.containsKey(student.getStudentId())) {
+                continue;
+            }
+            outcomes.put(student.getStudentId(), null);
+            pending.add(student);
+        }
+
+        Set<String> allocated = hostelManager.findActivelyAllocated(outcomes.keySet());
+        List<Student> unallocated = new ArrayList<>(pending.size());
+        for (Student student : pending) {
+            if (allocated.contains(student.getStudentId())) {
+                outcomes.put(student.getStudentId(), new BulkAllocationResult.Placement(student, null, null,
+                    BulkAllocationResult.Outcome.ALREADY_ALLOCATED, "Student already has an active allocation"));
+            } else {
+                unallocated.add(student);
+            }
+        }
+
+        List<BulkAllocationResult.Placement> plan = plan(unallocated, constraints, outcomes);
+        if (!dryRun && !plan.isEmpty()) {
+            plan = hostelManager.allocateBeds(plan);
+        }
+        for (BulkAllocationResult.Placement placement : plan) {
+            outcomes.put(placement.getStudentId(), placement);
+        }
+        return new BulkAllocationResult(new ArrayList<>(outcomes.values()), dryRun, System.currentTimeMillis() - start);
+    }
+
+    private List<BulkAllocationResult.Placement> plan(List<Student> students, Constraints constraints,
+                                                      Map<String, BulkAllocationResult.Placement> outcomes) {
+        List<Candidate> candidates = candidates(constraints);
+        Map<String, Integer> placedPerFloor = new HashMap<>();
+        List<BulkAllocationResult.Placement> plan = new ArrayList<>(students.size());
+
+        for (List<Student> group : groups(students, constraints.groupByDepartment)) {
+            int next = 0;
+            if (constraints.groupByDepartment) {
+                // Untouched empty rooms first, so a department fills rooms of its own.
+                for (Candidate candidate : candidates) {
+                    if (next == group.size()) {
+                        break;
+                    }
+                    if (candidate.empty && candidate.free == candidate.room.getCapacity()) {
+                        next = fill(candidate, group, next, constraints, placedPerFloor, plan);
+                    }
+                }
+            }
+            for (Candidate candidate : candidates) {
+                if (next == group.size()) {
+                    break;
+                }
+                next = fill(candidate, group, next, constraints, placedPerFloor, plan);
+            }
+            for (int i = next; i < group.size(); i++) {
+                Student student = group.get(i);
+                outcomes.put(student.getStudentId(), new BulkAllocationResult.Placement(student, null, null,
+                    BulkAllocationResult.Outcome.NO_BED, "No free bed matches the constraints"));
+            }
+        }
+        return plan;
+    }
+
+    private static int fill(Candidate candidate, List<Student> group, int next, Constraints constraints,
+                            Map<String, Integer> placedPerFloor, List<BulkAllocationResult.Placement> plan) {
+        String floor = candidate.room.getFloor() != null ? candidate.room.getFloor() : "";
+        int placed = placedPerFloor.getOrDefault(floor, 0);
+        while (candidate.free > 0 && next < group.size() &&
+               (constraints.maxPerFloor <= 0 || placed < constraints.maxPerFloor)) {
+            plan.add(new BulkAllocationResult.Placement(group.get(next++), candidate.room.getRoomNumber(), null,
+                BulkAllocationResult.Outcome.PLANNED, null));
+            candidate.free--;
+            placed++;
+        }
+        placedPerFloor.put(floor, placed);
+        return next;
+    }
+
+    // Rooms that satisfy the constraints, by room type preference, then floor and number.
+    private List<Candidate> candidates(Constraints constraints) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (Room room : hostelManager.findAvailableRooms(1, null, null)) {
+            int rank = constraints.preferredRoomTypes.indexOf(room.getRoomType());
+            if (rank < 0) {
+                if (constraints.preferredTypesOnly) {
+                    continue;
+                }
+                rank = constraints.preferredRoomTypes.size();
+            }
+            if (constraints.floors != null && !constraints.floors.contains(room.getFloor())) {
+                continue;
+            }
+            if (constraints.maxRentPerBed > 0 && room.getRentPerBed() > constraints.maxRentPerBed) {
+                continue;
+            }
+            candidates.add(new Candidate(room, rank));
+        }
+        candidates.sort(Comparator.<Candidate>comparingInt(c -> c.typeRank)
+            .thenComparing(c -> c.room.getFloor() != null ? c.room.getFloor() : "")
+            .thenComparing(c -> c.room.getRoomNumber()));
+        return candidates;
+    }
+
+    // One group per department, largest first so big cohorts get the preferred rooms;
+    // a single group when departments are not kept together.
+    private static List<List<Student>> groups(List<Student> students, boolean byDepartment) {
+        if (!byDepartment) {
+            return Collections.singletonList(students);
+        }
+        Map<String, List<Student>> byName = new LinkedHashMap<>();
+        for (Student student : students) {
+            String department = student.getDepartment() != null ? student.getDepartment() : "";
+            byName.computeIfAbsent(department, d -> new ArrayList<>()).add(student);
+        }
+        List<List<Student>> groups = new ArrayList<>(byName.values());
+        groups.sort(Comparator.comparingInt((List<Student> g) -> g.size()).reversed());
+        return groups;
+    }
+}
@@ -0,0 +1,68 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+class BulkLoadResult {
+    enum Outcome { INSERTED, DUPLICATE, INVALID }
+
+    static class RowResult {
+        private final String key;
+        private final Outcome outcome;
+        private final String message;
+
+        RowResult(String key, Outcome outcome, String message) {
+            this.key = key;
+            this.outcome = outcome;
+            this.message = message;
+        }
+
+        public String getKey() { return key; }
+        public Outcome getOutcome() { return outcome; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return key + ": " + outcome + (message != null ? " (" + message + ")" : "");
+        }
+    }
+
+    private final List<RowResult> rows;
+    private final long elapsedMillis;
+
+    BulkLoadResult(List<RowResult> rows, long elapsedMillis) {
+        this.rows = Collections.unmodifiableList(new ArrayList<>(rows));
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<RowResult> getRows() { return rows; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public int count(Outcome outcome) {
+        int count = 0;
+        for (RowResult row : rows) {
+            if (row.getOutcome() == outcome) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public Set<String> keysWith(Outcome outcome) {
+        Set<String> keys = new HashSet<>();
+        for (RowResult row : rows) {
+            if (row.getOutcome() == outcome) {
+                keys.add(row.getKey());
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public String toString() {
+        return "Rows: " + rows.size() + " | Inserted: " + count(Outcome.INSERTED) +
+               " | Duplicate: " + count(Outcome.DUPLICATE) + " | Invalid: " + count(Outcome.INVALID) +
+               " | Time: " + elapsedMillis + " ms";
+    }
+}
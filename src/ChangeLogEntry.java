@@ -0,0 +1,27 @@
+// One row of change_log: which row changed, how, and which instance made the change.
+class ChangeLogEntry {
+    private final long seq;
+    private final DataChangeEvent.Entity entity;
+    private final DataChangeEvent.Type type;
+    private final String key;
+    private final String instanceId;
+
+    ChangeLogEntry(long seq, DataChangeEvent.Entity entity, DataChangeEvent.Type type, String key, String instanceId) {
+        this.seq = seq;
+        this.entity = entity;
+        this.type = type;
+        this.key = key;
+        this.instanceId = instanceId;
+    }
+
+    public long getSeq() { return seq; }
+    public DataChangeEvent.Entity getEntity() { return entity; }
+    public DataChangeEvent.Type getType() { return type; }
+    public String getKey() { return key; }
+    public String getInstanceId() { return instanceId; }
+
+    @Override
+    public String toString() {
+        return "#" + seq + " " + entity + " " + key + " " + type + " by " + instanceId;
+    }
+}
@@ -0,0 +1,115 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Tails change_log by sequence number on a daemon thread and hands other instances' entries
+// to a sink. Sequence numbers are assigned at insert but become visible at commit, so a
+// number skipped over may still appear; such gaps are re-checked on later polls until they
+// show up or time out (rolled-back transactions leave permanent gaps).
+class ChangeLogPoller {
+    private static final int MAX_TRACKED_GAPS = 10_000;
+
+    private final MySQLDatabaseManager dbManager;
+    private final Consumer<List<ChangeLogEntry>> sink;
+    private final ScheduledExecutorService scheduler;
+    // Missing sequence number -> time after which it is given up on.
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+    private long high = -1;
+    private long nextPruneAt;
+    private boolean failing;
+
+    public ChangeLogPoller(MySQLDatabaseManager dbManager, Consumer<List<ChangeLogEntry>> sink) {
+        this.dbManager = dbManager;
+        this.sink = sink;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "change-log-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        long interval = DatabaseConfig.CHANGE_LOG_POLL_MS;
+        scheduler.scheduleWithFixedDelay(this::pollSafely, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+            if (failing) {
+                System.out.println("Change log polling resumed");
+                failing = false;
+            }
+        } catch (SQLException e) {
+            // Reported once per outage rather than on every tick.
+            if (!failing) {
+                System.err.println("Error polling change log: " + e.getMessage());
+                failing = true;
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error applying change log entries: " + e.getMessage());
+        }
+    }
+
+    private void poll() throws SQLException {
+        if (high < 0) {
+            // Start from the current end; earlier history is already in what we load.
+            high = dbManager.latestChangeSeq();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<ChangeLogEntry> entries;
+        do {
+            entries = dbManager.readChangeLog(high, DatabaseConfig.CHANGE_LOG_BATCH_SIZE);
+            for (ChangeLogEntry entry : entries) {
+                for (long missing = high + 1; missing < entry.getSeq() && gaps.size() < MAX_TRACKED_GAPS; missing++) {
+                    gaps.put(missing, now + DatabaseConfig.CHANGE_LOG_GAP_TIMEOUT_MS);
+                }
+                high = entry.getSeq();
+            }
+            deliver(entries);
+        } while (entries.size() == DatabaseConfig.CHANGE_LOG_BATCH_SIZE);
+
+        if (!gaps.isEmpty()) {
+            List<ChangeLogEntry> late = dbManager.readChangeLog(gaps.keySet());
+            for (ChangeLogEntry entry : late) {
+                gaps.remove(entry.getSeq());
+            }
+            deliver(late);
+            for (Iterator<Long> it = gaps.values().iterator(); it.hasNext(); ) {
+                if (it.next() < now) {
+                    it.remove();
+                }
+            }
+        }
+
+        if (now >= nextPruneAt) {
+            nextPruneAt = now + DatabaseConfig.CHANGE_LOG_PRUNE_INTERVAL_MS;
+            dbManager.pruneChangeLog(DatabaseConfig.CHANGE_LOG_RETENTION_MS);
+        }
+    }
+
+    private void deliver(List<ChangeLogEntry> entries) {
+        List<ChangeLogEntry> remote = new ArrayList<>(entries.size());
+        String self = dbManager.getInstanceId();
+        for (ChangeLogEntry entry : entries) {
+            if (!self.equals(entry.getInstanceId())) {
+                remote.add(entry);
+            }
+        }
+        if (!remote.isEmpty()) {
+            sink.accept(remote);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class ConnectionPool {
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minIdle;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed = false;
+
+    private final AtomicLong totalCreated = new AtomicLong();
+    private final AtomicLong totalClosed = new AtomicLong();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+
+    public ConnectionPool(String url, String user, String password, int minIdle, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long evictionIntervalMillis,
+                          int validationTimeoutSeconds, int statementCacheSize) throws SQLException {
+        if (maxSize < 1 || minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: minIdle=" + minIdle + ", maxSize=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        for (int i = 0; i < minIdle; i++) {
+            idle.offerLast(createConnection());
+        }
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections,
+            evictionIntervalMillis, evictionIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public static ConnectionPool fromConfig() throws SQLException {
+        return new ConnectionPool(
+            DatabaseConfig.connectionUrl(),
+            DatabaseConfig.DB_USER,
+            DatabaseConfig.DB_PASSWORD,
+            DatabaseConfig.POOL_MIN_IDLE,
+            DatabaseConfig.POOL_MAX_SIZE,
+            DatabaseConfig.POOL_BORROW_TIMEOUT_MS,
+            DatabaseConfig.POOL_IDLE_TIMEOUT_MS,
+            DatabaseConfig.POOL_EVICTION_INTERVAL_MS,
+            DatabaseConfig.POOL_VALIDATION_TIMEOUT_SECONDS,
+            DatabaseConfig.STATEMENT_CACHE_SIZE
+        );
+    }
+
+    public PooledConnection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                borrowTimeouts.incrementAndGet();
+                throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis +
+                    " ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pc;
+            while ((pc = idle.pollFirst()) != null) {
+                if (isValid(pc)) {
+                    break;
+                }
+                validationFailures.incrementAndGet();
+                discard(pc);
+            }
+            if (pc == null) {
+                pc = createConnection();
+            }
+            borrowCount.incrementAndGet();
+            totalWaitNanos.addAndGet(System.nanoTime() - start);
+            pc.markBorrowed();
+            return pc;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    void release(PooledConnection pc) {
+        try {
+            if (closed || !resetForReuse(pc)) {
+                discard(pc);
+            } else {
+                pc.markReturned();
+                idle.offerFirst(pc);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean resetForReuse(PooledConnection pc) {
+        try {
+            Connection connection = pc.getConnection();
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error resetting pooled connection: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isValid(PooledConnection pc) {
+        try {
+            return pc.getConnection().isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, user, password);
+        totalCreated.incrementAndGet();
+        return new PooledConnection(this, connection,
+            new StatementCache(connection, statementCacheSize, statementCounters));
+    }
+
+    private void discard(PooledConnection pc) {
+        pc.closePhysical();
+        totalClosed.incrementAndGet();
+    }
+
+    private void evictIdleConnections() {
+        for (PooledConnection pc : idle) {
+            if (idle.size() <= minIdle) {
+                break;
+            }
+            if (pc.isIdleLongerThan(idleTimeoutMillis) && idle.remove(pc)) {
+                evictions.incrementAndGet();
+                discard(pc);
+            }
+        }
+        replenish();
+    }
+
+    // Tops idle back up to minIdle after evictions or discarded connections, never
+    // exceeding maxSize together with the connections currently borrowed.
+    private void replenish() {
+        while (!closed && idle.size() < minIdle &&
+               idle.size() + (maxSize - permits.availablePermits()) < maxSize) {
+            try {
+                idle.offerLast(createConnection());
+            } catch (SQLException e) {
+                System.err.println("Error replenishing connection pool: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    public Stats getStats() {
+        int idleCount = idle.size();
+        int activeCount = maxSize - permits.availablePermits();
+        long borrows = borrowCount.get();
+        double avgWaitMillis = borrows == 0 ? 0 : totalWaitNanos.get() / 1_000_000.0 / borrows;
+        return new Stats(maxSize, activeCount, idleCount, totalCreated.get(), totalClosed.get(),
+            borrows, borrowTimeouts.get(), validationFailures.get(), evictions.get(), avgWaitMillis);
+    }
+
+    public StatementCache.Counters getStatementCacheCounters() {
+        return statementCounters;
+    }
+
+    public void shutdown() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            discard(pc);
+        }
+    }
+
+    static class Stats {
+        private final int maxSize;
+        private final int active;
+        private final int idle;
+        private final long totalCreated;
+        private final long totalClosed;
+        private final long borrowCount;
+        private final long borrowTimeouts;
+        private final long validationFailures;
+        private final long evictions;
+        private final double averageWaitMillis;
+
+        Stats(int maxSize, int active, int idle, long totalCreated, long totalClosed, long borrowCount,
+              long borrowTimeouts, long validationFailures, long evictions, double averageWaitMillis) {
+            this.maxSize = maxSize;
+            this.active = active;
+            this.idle = idle;
+            this.totalCreated = totalCreated;
+            this.totalClosed = totalClosed;
+            this.borrowCount = borrowCount;
+            this.borrowTimeouts = borrowTimeouts;
+            this.validationFailures = validationFailures;
+            this.evictions = evictions;
+            this.averageWaitMillis = averageWaitMillis;
+        }
+
+        public int getMaxSize() { return maxSize; }
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public long getTotalCreated() { return totalCreated; }
+        public long getTotalClosed() { return totalClosed; }
+        public long getBorrowCount() { return borrowCount; }
+        public long getBorrowTimeouts() { return borrowTimeouts; }
+        public long getValidationFailures() { return validationFailures; }
+        public long getEvictions() { return evictions; }
+        public double getAverageWaitMillis() { return averageWaitMillis; }
+
+        @Override
+        public String toString() {
+            return "Pool: " + active + "/" + maxSize + " active | Idle: " + idle +
+                   " | Created: " + totalCreated + " | Closed: " + totalClosed +
+                   " | Borrows: " + borrowCount + " | Timeouts: " + borrowTimeouts +
+                   " | Validation failures: " + validationFailures + " | Evictions: " + evictions +
+                   String.format(" | Avg wait: %.2f ms", averageWaitMillis);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+// Published by HostelManager after a write has been committed, so views can patch the
+// affected row instead of reloading whole tables.
+class DataChangeEvent {
+    enum Entity { STUDENT, ROOM, ALLOCATION, WAITLIST }
+    enum Type { INSERTED, UPDATED, DELETED }
+
+    private final Entity entity;
+    private final Type type;
+    private final String key;
+    private final Object row;
+
+    DataChangeEvent(Entity entity, Type type, String key, Object row) {
+        this.entity = entity;
+        this.type = type;
+        this.key = key;
+        this.row = row;
+    }
+
+    public Entity getEntity() { return entity; }
+    public Type getType() { return type; }
+    public String getKey() { return key; }
+    // The row after the change, typed by entity; null for deletions.
+    public Object getRow() { return row; }
+
+    @Override
+    public String toString() {
+        return entity + " " + key + " " + type;
+    }
+}
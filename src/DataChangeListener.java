@@ -0,0 +1,4 @@
+// Called on the thread that performed the write; Swing listeners must hop to the EDT.
+interface DataChangeListener {
+    void dataChanged(DataChangeEvent event);
+}
@@ -0,0 +1,159 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+// Streams students, rooms or allocations from a forward-only cursor straight to a CSV or
+// JSON Lines file. Rows are written as they arrive, so memory use does not depend on the
+// row count. Output goes to a ".part" file that is moved into place only on success.
+class DataExporter {
+    enum Dataset { STUDENTS, ROOMS, ALLOCATIONS }
+    enum Format { CSV, JSONL }
+
+    interface ProgressListener {
+        void rowsWritten(long rows);
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private static final String[] STUDENT_COLUMNS = {"student_id", "name", "email", "phone", "department"};
+    private static final String[] ROOM_COLUMNS = {"room_number", "room_type", "capacity", "occupied", "rent_per_bed", "floor"};
+    private static final String[] ALLOCATION_COLUMNS = {"allocation_id", "student_id", "student_name", "room_number",
+                                                        "allocation_date", "checkout_date", "status"};
+
+    private final HostelManager hostelManager;
+
+    public DataExporter(HostelManager hostelManager) {
+        this.hostelManager = hostelManager;
+    }
+
+    public static String defaultFileName(Dataset dataset, Format format, boolean gzip) {
+        return dataset.name().toLowerCase() + (format == Format.CSV ? ".csv" : ".jsonl") + (gzip ? ".gz" : "");
+    }
+
+    // Returns the number of rows written. Throws CancellationException if cancelled is raised.
+    public long export(Dataset dataset, Format format, Path target, boolean gzip,
+                       ProgressListener progress, BooleanSupplier cancelled) throws IOException {
+        switch (dataset) {
+            case STUDENTS:
+                return write(target, format, gzip, progress, cancelled, STUDENT_COLUMNS,
+                    (Student s) -> new Object[]{s.getStudentId(), s.getName(), s.getEmail(), s.getPhone(), s.getDepartment()},
+                    hostelManager::forEachStudent);
+            case ROOMS:
+                return write(target, format, gzip, progress, cancelled, ROOM_COLUMNS,
+                    (Room r) -> new Object[]{r.getRoomNumber(), r.getRoomType(), r.getCapacity(), r.getOccupied(),
+                                             r.getRentPerBed(), r.getFloor()},
+                    hostelManager::forEachRoom);
+            case ALLOCATIONS:
+                return write(target, format, gzip, progress, cancelled, ALLOCATION_COLUMNS,
+                    (Allocation a) -> new Object[]{a.getAllocationId(), a.getStudent().getStudentId(),
+                                                   a.getStudent().getName(), a.getRoom().getRoomNumber(),
+                                                   a.getAllocationDate(), a.getCheckoutDate(), a.getStatus()},
+                    hostelManager::forEachAllocation);
+            default:
+                throw new IllegalArgumentException("Unknown dataset: " + dataset);
+        }
+    }
+
+    private interface Source<T> {
+        boolean forEach(Consumer<T> consumer);
+    }
+
+    private <T> long write(Path target, Format format, boolean gzip, ProgressListener progress,
+                           BooleanSupplier cancelled, String[] columns, Function<T, Object[]> toRow,
+                           Source<T> source) throws IOException {
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        long[] rows = {0};
+        boolean completed = false;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Writer writer = new OutputStreamWriter(open(channel, gzip), StandardCharsets.UTF_8)) {
+            StringBuilder line = new StringBuilder(256);
+            if (format == Format.CSV) {
+                writer.write(csvLine(line, columns));
+            }
+            boolean ok;
+            try {
+                ok = source.forEach(item -> {
+                    if (cancelled != null && cancelled.getAsBoolean()) {
+                        throw new CancellationException("Export cancelled");
+                    }
+                    Object[] values = toRow.apply(item);
+                    try {
+                        writer.write(format == Format.CSV ? csvLine(line, values) : jsonLine(line, columns, values));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (++rows[0] % PROGRESS_INTERVAL == 0 && progress != null) {
+                        progress.rowsWritten(rows[0]);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (!ok) {
+                throw new IOException("Export failed while reading from the database");
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                Files.deleteIfExists(part);
+            }
+        }
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        if (progress != null) {
+            progress.rowsWritten(rows[0]);
+        }
+        return rows[0];
+    }
+
+    private static OutputStream open(FileChannel channel, boolean gzip) throws IOException {
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        return gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+    }
+
+    private static String csvLine(StringBuilder line, Object[] values) {
+        line.setLength(0);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String value = values[i] == null ? "" : values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        return line.append("\r\n").toString();
+    }
+
+    private static String jsonLine(StringBuilder line, String[] columns, Object[] values) {
+        line.setLength(0);
+        line.append('{');
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Json.appendQuoted(line, columns[i]);
+            line.append(':');
+            Json.appendValue(line, values[i]);
+        }
+        return line.append("}\n").toString();
+    }
+}
@@ -3,5 +3,60 @@ class DatabaseConfig {
     public static final String DB_USER = "root";  
     public static final String DB_PASSWORD = "";  
     public static final String DB_DRIVER = "com.mysql.cj.jdbc.Driver";
-}
 
+    public static final int POOL_MIN_IDLE = 2;
+    public static final int POOL_MAX_SIZE = 10;
+    public static final long POOL_BORROW_TIMEOUT_MS = 5000;
+    public static final long POOL_IDLE_TIMEOUT_MS = 5 * 60 * 1000;
+    public static final long POOL_EVICTION_INTERVAL_MS = 30 * 1000;
+    public static final int POOL_VALIDATION_TIMEOUT_SECONDS = 2;
+
+    public static final int FETCH_SIZE = 500;
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    public static final int MAX_PAGE_SIZE = 5000;
+
+    public static final int STATEMENT_CACHE_SIZE = 64;
+    public static final boolean USE_SERVER_PREPARED_STATEMENTS = true;
+
+    public static final int BULK_CHUNK_SIZE = 1000;
+    public static final int BULK_ALLOCATION_CHUNK_SIZE = 500;
+
+    public static final int ID_BLOCK_SIZE = 50;
+
+    public static final int STUDENT_CACHE_SIZE = 100_000;
+    public static final int ROOM_CACHE_SIZE = 10_000;
+    public static final long ENTITY_CACHE_TTL_MS = 10 * 60 * 1000;
+
+    public static final int SEARCH_RESULT_LIMIT = 1000;
+    public static final int TYPE_AHEAD_LIMIT = 50;
+    public static final int TYPE_AHEAD_DEBOUNCE_MS = 250;
+    public static final int TYPE_AHEAD_CACHE_SIZE = 32;
+    public static final int CHANGE_REFRESH_COALESCE_MS = 300;
+
+    public static final int API_PORT = 8080;
+    public static final int API_BACKLOG = 1024;
+    public static final int API_FALLBACK_THREADS = 64;
+    public static final int API_MAX_BODY_BYTES = 64 * 1024;
+
+    public static final long CHANGE_LOG_POLL_MS = 500;
+    public static final int CHANGE_LOG_BATCH_SIZE = 1000;
+    public static final long CHANGE_LOG_GAP_TIMEOUT_MS = 30 * 1000;
+    public static final long CHANGE_LOG_RETENTION_MS = 60 * 60 * 1000;
+    public static final long CHANGE_LOG_PRUNE_INTERVAL_MS = 60 * 1000;
+
+    public static final int UPDATE_MAX_ATTEMPTS = 5;
+    public static final long UPDATE_RETRY_BASE_DELAY_MS = 5;
+    public static final long UPDATE_RETRY_MAX_DELAY_MS = 200;
+
+    public static String connectionUrl() {
+        // useCursorFetch makes Connector/J honour setFetchSize with a server-side cursor
+        // instead of buffering the whole result set on the client.
+        // rewriteBatchedStatements turns JDBC insert batches into multi-row INSERTs.
+        StringBuilder url = new StringBuilder(DB_URL)
+            .append("?useCursorFetch=true&defaultFetchSize=0&rewriteBatchedStatements=true");
+        if (USE_SERVER_PREPARED_STATEMENTS) {
+            url.append("&useServerPrepStmts=true");
+        }
+        return url.toString();
+    }
+}
@@ -0,0 +1,145 @@
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded LRU with a time-to-live, used as a read-through cache in front of single-row
+// lookups. Missing rows are not cached. Loads run outside the lock; a load that overlaps
+// an invalidation is returned to its caller but not stored, so a concurrent write can
+// never be masked by an older read.
+class EntityCache<K, V> {
+    interface Loader<K, V> {
+        V load(K key) throws SQLException;
+    }
+
+    private static class CachedValue<V> {
+        final V value;
+        final long expiresAt;
+
+        CachedValue(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final String name;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, CachedValue<V>> entries;
+    private long invalidations;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long loads;
+    private long totalLoadNanos;
+
+    public EntityCache(String name, int maxSize, long ttlMillis) {
+        this.name = name;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<K, CachedValue<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CachedValue<V>> eldest) {
+                if (size() > maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key, Loader<K, V> loader) throws SQLException {
+        long generation;
+        synchronized (this) {
+            CachedValue<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > System.currentTimeMillis()) {
+                    hits++;
+                    return entry.value;
+                }
+                entries.remove(key);
+                expirations++;
+            }
+            misses++;
+            generation = invalidations;
+        }
+
+        long start = System.nanoTime();
+        V value = loader.load(key);
+        long elapsed = System.nanoTime() - start;
+
+        synchronized (this) {
+            loads++;
+            totalLoadNanos += elapsed;
+            if (value != null && generation == invalidations) {
+                entries.put(key, new CachedValue<>(value, System.currentTimeMillis() + ttlMillis));
+            }
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        invalidations++;
+        entries.put(key, new CachedValue<>(value, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations++;
+        entries.clear();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(name, entries.size(), hits, misses, evictions, expirations, loads,
+            loads == 0 ? 0 : totalLoadNanos / 1_000_000.0 / loads);
+    }
+
+    static class Stats {
+        private final String name;
+        private final int size;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final long loads;
+        private final double averageLoadMillis;
+
+        Stats(String name, int size, long hits, long misses, long evictions, long expirations,
+              long loads, double averageLoadMillis) {
+            this.name = name;
+            this.size = size;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.loads = loads;
+            this.averageLoadMillis = averageLoadMillis;
+        }
+
+        public String getName() { return name; }
+        public int getSize() { return size; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getExpirations() { return expirations; }
+        public long getLoads() { return loads; }
+        public double getAverageLoadMillis() { return averageLoadMillis; }
+
+        public double getHitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return name + " cache: Size: " + size + " | Hits: " + hits + " | Misses: " + misses +
+                   String.format(" | Hit ratio: %.1f%%", getHitRatio() * 100) +
+                   " | Evictions: " + evictions + " | Expired: " + expirations +
+                   String.format(" | Avg load: %.2f ms", averageLoadMillis);
+        }
+    }
+}
@@ -0,0 +1,698 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Headless JSON API over HostelManager on the JDK's built-in HTTP server. Each exchange runs
+// on its own virtual thread when the runtime has them (a fixed pool otherwise); database
+// concurrency stays bounded by the connection pool, so blocked requests park instead of
+// piling up connections. List endpoints use keyset pagination (?after=&limit=) and carry a
+// weak ETag built from the manager's data version, so unchanged pages answer 304. That version
+// only moves on this node's own writes and on changes its change-log poller has applied, so with
+// several nodes another node can still answer 304 for about CHANGE_LOG_POLL_MS after a write
+// elsewhere (longer if its poller falls behind). Single
+// students and rooms carry a strong ETag of their row version; a PUT with If-Match (or a
+// "version" field) only applies if the row is unchanged, and answers 412/409 otherwise; a PUT
+// with neither is refused with 428.
+class HostelApiServer {
+    private static final String JSON = "application/json; charset=utf-8";
+    // The data version restarts at 0 in every process, so tags also carry a per-process epoch;
+    // otherwise a restarted or different API node could answer 304 for data the client never saw.
+    private static final String ETAG_EPOCH = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    private final HostelManager hostelManager;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public HostelApiServer(HostelManager hostelManager, int port) throws IOException {
+        this.hostelManager = hostelManager;
+        this.server = HttpServer.create(new InetSocketAddress(port), DatabaseConfig.API_BACKLOG);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("HTTP API listening on port " + server.getAddress().getPort());
+    }
+
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Looked up reflectively so the source still builds for Java 11; Java 21+ gets virtual threads.
+    // Older runtimes get a fixed pool of DatabaseConfig.API_FALLBACK_THREADS, which then caps how
+    // many requests are served at once.
+    private static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            System.err.println("Warning: virtual threads need Java 21+, serving requests on a fixed pool of " +
+                               DatabaseConfig.API_FALLBACK_THREADS + " threads (DatabaseConfig.API_FALLBACK_THREADS)");
+            return Executors.newFixedThreadPool(DatabaseConfig.API_FALLBACK_THREADS);
+        }
+    }
+
+    private static class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            route(exchange);
+        } catch (ApiException e) {
+            sendError(exchange, e.status, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Error handling " + exchange.getRequestURI() + ": " + e.getMessage());
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] path = segments(exchange.getRequestURI().getRawPath());
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String resource = path.length > 0 ? path[0] : "";
+
+        switch (resource) {
+            case "students":
+                if (path.length == 1 && method.equals("GET")) {
+                    if (query.containsKey("q")) {
+                        List<Student> found = hostelManager.searchStudents(query.get("q"),
+                            limit(query, DatabaseConfig.SEARCH_RESULT_LIMIT));
+                        sendJson(exchange, 200, listJson(found, HostelApiServer::appendStudent), null);
+                    } else {
+                        Page<Student> page = hostelManager.getStudentsPage(query.get("after"), limit(query, DatabaseConfig.DEFAULT_PAGE_SIZE));
+                        sendPage(exchange, page, HostelApiServer::appendStudent);
+                    }
+                    return;
+                }
+                if (path.length == 1 && method.equals("POST")) {
+                    Student student = studentFromBody(readBody(exchange), null);
+                    if (!hostelManager.addStudent(student)) {
+                        throw new ApiException(409, "Could not add student " + student.getStudentId());
+                    }
+                    sendJson(exchange, 201, objectJson(student, HostelApiServer::appendStudent), null);
+                    return;
+                }
+                if (path.length == 2) {
+                    studentResource(exchange, method, path[1]);
+                    return;
+                }
+                break;
+            case "rooms":
+                if (path.length == 1 && method.equals("GET")) {
+                    Page<Room> page = hostelManager.getRoomsPage(query.get("after"), limit(query, DatabaseConfig.DEFAULT_PAGE_SIZE));
+                    sendPage(exchange, page, HostelApiServer::appendRoom);
+                    return;
+                }
+                if (path.length == 1 && method.equals("POST")) {
+                    Room room = roomFromBody(readBody(exchange));
+                    if (!hostelManager.addRoom(room)) {
+                        throw new ApiException(409, "Could not add room " + room.getRoomNumber());
+                    }
+                    sendJson(exchange, 201, objectJson(room, HostelApiServer::appendRoom), null);
+                    return;
+                }
+                if (path.length == 2 && path[1].equals("available") && method.equals("GET")) {
+                    List<Room> rooms = hostelManager.findAvailableRooms(intParam(query, "minFreeBeds", 1),
+                        query.get("floor"), query.get("type"));
+                    sendList(exchange, rooms, HostelApiServer::appendRoom);
+                    return;
+                }
+                if (path.length == 2 && method.equals("GET")) {
+                    Room room = hostelManager.findRoomByNumber(path[1]);
+                    if (room == null) {
+                        throw new ApiException(404, "Room " + path[1] + " not found");
+                    }
+                    sendJson(exchange, 200, objectJson(room, HostelApiServer::appendRoom), versionTag(room.getVersion()));
+                    return;
+                }
+                if (path.length == 2 && method.equals("PUT")) {
+                    updateRoom(exchange, path[1]);
+                    return;
+                }
+                break;
+            case "allocations":
+                if (path.length == 1 && method.equals("GET")) {
+                    Page<Allocation> page = hostelManager.getAllocationsPage(query.get("after"), limit(query, DatabaseConfig.DEFAULT_PAGE_SIZE));
+                    sendPage(exchange, page, HostelApiServer::appendAllocation);
+                    return;
+                }
+                if (path.length == 1 && method.equals("POST")) {
+                    Map<String, Object> body = readBody(exchange);
+                    String studentId = required(body, "studentId");
+                    String roomNumber = required(body, "roomNumber");
+                    if (!hostelManager.allocateRoom(studentId, roomNumber)) {
+                        throw new ApiException(409, "Could not allocate room " + roomNumber + " to " + studentId);
+                    }
+                    sendJson(exchange, 201, "{\"studentId\":" + Json.quote(studentId) +
+                        ",\"roomNumber\":" + Json.quote(roomNumber) + "}", null);
+                    return;
+                }
+                if (path.length == 2 && path[1].equals("bulk") && method.equals("POST")) {
+                    bulkAllocate(exchange, readBody(exchange));
+                    return;
+                }
+                if (path.length == 2 && path[1].equals("checkout") && method.equals("POST")) {
+                    String studentId = required(readBody(exchange), "studentId");
+                    if (!hostelManager.deallocateRoom(studentId)) {
+                        throw new ApiException(409, "No active allocation for " + studentId);
+                    }
+                    sendJson(exchange, 200, "{\"studentId\":" + Json.quote(studentId) + ",\"status\":\"Checkout\"}", null);
+                    return;
+                }
+                break;
+            case "waitlist":
+                if (path.length == 1 && method.equals("GET")) {
+                    sendList(exchange, hostelManager.getWaitlist(), HostelApiServer::appendWaitlistEntry);
+                    return;
+                }
+                if (path.length == 1 && method.equals("POST")) {
+                    Map<String, Object> body = readBody(exchange);
+                    Object priority = body.get("priority");
+                    WaitlistEntry entry = hostelManager.joinWaitlist(required(body, "studentId"), required(body, "roomType"),
+                        priority instanceof Double ? ((Double) priority).intValue() : 0);
+                    if (entry == null) {
+                        throw new ApiException(409, "Could not add to the waitlist");
+                    }
+                    sendJson(exchange, 201, objectJson(entry, HostelApiServer::appendWaitlistEntry), null);
+                    return;
+                }
+                if (path.length == 2 && method.equals("DELETE")) {
+                    long waitlistId;
+                    try {
+                        waitlistId = Long.parseLong(path[1]);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid waitlist ID: " + path[1]);
+                    }
+                    if (!hostelManager.cancelWaitlistEntry(waitlistId)) {
+                        throw new ApiException(404, "No waiting entry " + path[1]);
+                    }
+                    exchange.sendResponseHeaders(204, -1);
+                    return;
+                }
+                break;
+            case "report":
+                if (path.length == 1 && method.equals("GET")) {
+                    sendReport(exchange, "true".equals(query.get("rooms")));
+                    return;
+                }
+                break;
+            default:
+                break;
+        }
+        throw new ApiException(path.length > 0 && isKnown(resource) ? 405 : 404,
+            method + " " + exchange.getRequestURI().getPath() + " is not supported");
+    }
+
+    private void studentResource(HttpExchange exchange, String method, String studentId) throws IOException {
+        switch (method) {
+            case "GET": {
+                Student student = hostelManager.findStudentById(studentId);
+                if (student == null) {
+                    throw new ApiException(404, "Student " + studentId + " not found");
+                }
+                sendJson(exchange, 200, objectJson(student, HostelApiServer::appendStudent), versionTag(student.getVersion()));
+                return;
+            }
+            case "PUT": {
+                Map<String, Object> body = readBody(exchange);
+                Student student = studentFromBody(body, studentId);
+                student.setVersion(expectedVersion(exchange, body));
+                checkUpdated(exchange, hostelManager.updateStudent(student), "Student " + studentId);
+                sendJson(exchange, 200, objectJson(student, HostelApiServer::appendStudent), versionTag(student.getVersion()));
+                return;
+            }
+            case "DELETE":
+                if (!hostelManager.removeStudent(studentId)) {
+                    throw new ApiException(404, "Student " + studentId + " not deleted");
+                }
+                exchange.sendResponseHeaders(204, -1);
+                return;
+            default:
+                throw new ApiException(405, method + " not supported for students");
+        }
+    }
+
+    // Occupancy correction, applied only at the version the client read.
+    private void updateRoom(HttpExchange exchange, String roomNumber) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        Object occupied = body.get("occupied");
+        if (!(occupied instanceof Double) || (Double) occupied < 0) {
+            throw new IllegalArgumentException("occupied must be a non-negative number");
+        }
+        int value = ((Double) occupied).intValue();
+        UpdateOutcome outcome = hostelManager.updateRoomOccupancy(roomNumber, value, expectedVersion(exchange, body));
+        if (outcome == UpdateOutcome.REJECTED) {
+            throw new ApiException(400, "occupied exceeds the capacity of room " + roomNumber);
+        }
+        checkUpdated(exchange, outcome, "Room " + roomNumber);
+        Room room = hostelManager.findRoomByNumber(roomNumber);
+        if (room == null) {
+            throw new ApiException(404, "Room " + roomNumber + " not found");
+        }
+        sendJson(exchange, 200, objectJson(room, HostelApiServer::appendRoom), versionTag(room.getVersion()));
+    }
+
+    // Version the client last saw: If-Match wins over a "version" body field. Writes without
+    // either are refused with 428 rather than overwriting changes the client never saw.
+    private static long expectedVersion(HttpExchange exchange, Map<String, Object> body) {
+        String header = exchange.getRequestHeaders().getFirst("If-Match");
+        if (header != null) {
+            String tag = header.trim();
+            if (tag.startsWith("W/")) {
+                // Weak tags never match for writes.
+                throw new ApiException(412, "If-Match requires a strong entity tag");
+            }
+            try {
+                return Long.parseLong(tag.replace("\"", ""));
+            } catch (NumberFormatException e) {
+                throw new ApiException(412, "If-Match does not match any version: " + tag);
+            }
+        }
+        Object version = body.get("version");
+        if (!(version instanceof Double)) {
+            throw new ApiException(428, "Send If-Match or a \"version\" field with the version last read");
+        }
+        return ((Double) version).longValue();
+    }
+
+    private static void checkUpdated(HttpExchange exchange, UpdateOutcome outcome, String what) {
+        switch (outcome) {
+            case UPDATED:
+                return;
+            case NOT_FOUND:
+                throw new ApiException(404, what + " not found");
+            case REJECTED:
+                throw new ApiException(400, what + " rejected the new value");
+            case CONFLICT:
+                throw new ApiException(exchange.getRequestHeaders().containsKey("If-Match") ? 412 : 409,
+                    what + " was modified by another request");
+            default:
+                throw new ApiException(500, what + " not updated");
+        }
+    }
+
+    private static String versionTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Places every unallocated student; "dryRun" defaults to true so a bare POST only previews.
+    private void bulkAllocate(HttpExchange exchange, Map<String, Object> body) throws IOException {
+        BulkAllocator.Constraints constraints = new BulkAllocator.Constraints()
+            .groupByDepartment(Boolean.TRUE.equals(body.get("groupByDepartment")))
+            .preferRoomTypes(listField(body, "roomTypes"), Boolean.TRUE.equals(body.get("roomTypesOnly")))
+            .floors(listField(body, "floors"))
+            .maxPerFloor(body.get("maxPerFloor") instanceof Double ? ((Double) body.get("maxPerFloor")).intValue() : 0)
+            .maxRentPerBed(body.get("maxRentPerBed") instanceof Double ? (Double) body.get("maxRentPerBed") : 0);
+        boolean dryRun = !Boolean.FALSE.equals(body.get("dryRun"));
+        BulkAllocationResult result = new BulkAllocator(hostelManager)
+            .allocate(hostelManager.getUnallocatedStudents(), constraints, dryRun);
+        StringBuilder out = new StringBuilder(128 + result.getPlacements().size() * 96);
+        out.append("{\"dryRun\":").append(dryRun);
+        for (BulkAllocationResult.Outcome outcome : BulkAllocationResult.Outcome.values()) {
+            out.append(',');
+            Json.appendQuoted(out, outcome.name().toLowerCase());
+            out.append(':').append(result.count(outcome));
+        }
+        out.append(",\"elapsedMillis\":").append(result.getElapsedMillis()).append(",\"placements\":");
+        appendList(out, result.getPlacements(), (sb, p) -> {
+            sb.append("{\"studentId\":");
+            Json.appendValue(sb, p.getStudentId());
+            sb.append(",\"roomNumber\":");
+            Json.appendValue(sb, p.getRoomNumber());
+            sb.append(",\"allocationId\":");
+            Json.appendValue(sb, p.getAllocationId());
+            sb.append(",\"outcome\":");
+            Json.appendValue(sb, p.getOutcome());
+            sb.append(",\"message\":");
+            Json.appendValue(sb, p.getMessage());
+            sb.append('}');
+        });
+        out.append('}');
+        sendJson(exchange, 200, out.toString(), null);
+    }
+
+    // Comma-separated string field as a list; missing or blank gives an empty list.
+    private static List<String> listField(Map<String, Object> body, String field) {
+        List<String> items = new ArrayList<>();
+        String value = optional(body, field);
+        if (value != null) {
+            for (String item : value.split(",")) {
+                if (!item.trim().isEmpty()) {
+                    items.add(item.trim());
+                }
+            }
+        }
+        return items;
+    }
+
+    private static boolean isKnown(String resource) {
+        return resource.equals("students") || resource.equals("rooms") ||
+               resource.equals("allocations") || resource.equals("waitlist") || resource.equals("report");
+    }
+
+    // Conditional GET: the tag covers the data version and the query, so any committed write
+    // through this manager invalidates every cached page at once.
+    private <T> void sendPage(HttpExchange exchange, Page<T> page, Appender<T> appender) throws IOException {
+        String etag = etagFor(exchange);
+        if (notModified(exchange, etag)) {
+            return;
+        }
+        StringBuilder out = new StringBuilder(256 + page.size() * 128);
+        out.append("{\"items\":");
+        appendList(out, page.getItems(), appender);
+        out.append(",\"nextCursor\":");
+        Json.appendValue(out, page.getNextCursor());
+        out.append(",\"hasMore\":").append(page.hasMore()).append('}');
+        sendJson(exchange, 200, out.toString(), etag);
+    }
+
+    private <T> void sendList(HttpExchange exchange, List<T> items, Appender<T> appender) throws IOException {
+        String etag = etagFor(exchange);
+        if (notModified(exchange, etag)) {
+            return;
+        }
+        sendJson(exchange, 200, listJson(items, appender), etag);
+    }
+
+    private void sendReport(HttpExchange exchange, boolean includeRooms) throws IOException {
+        String etag = etagFor(exchange);
+        if (notModified(exchange, etag)) {
+            return;
+        }
+        HostelReport report = hostelManager.generateReport();
+        if (report == null) {
+            throw new ApiException(503, "Report unavailable");
+        }
+        StringBuilder out = new StringBuilder(1024);
+        out.append("{\"totalStudents\":").append(report.getTotalStudents())
+           .append(",\"totalRooms\":").append(report.getTotalRooms())
+           .append(",\"availableRooms\":").append(report.getAvailableRooms())
+           .append(",\"activeAllocations\":").append(report.getActiveAllocations())
+           .append(",\"monthlyRevenue\":").append(report.getMonthlyRevenue())
+           .append(",\"byFloor\":");
+        appendList(out, report.getByFloor(), HostelApiServer::appendBreakdown);
+        out.append(",\"byRoomType\":");
+        appendList(out, report.getByRoomType(), HostelApiServer::appendBreakdown);
+        out.append(",\"byDepartment\":");
+        appendList(out, report.getByDepartment(), HostelApiServer::appendBreakdown);
+        if (includeRooms) {
+            out.append(",\"rooms\":");
+            appendList(out, report.getRooms(), (sb, r) -> sb.append("{\"roomNumber\":").append(Json.quote(r.getRoomNumber()))
+                .append(",\"capacity\":").append(r.getCapacity())
+                .append(",\"occupied\":").append(r.getOccupied()).append('}'));
+        }
+        out.append('}');
+        sendJson(exchange, 200, out.toString(), etag);
+    }
+
+    private String etagFor(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getRawQuery();
+        String uri = exchange.getRequestURI().getRawPath() + (query != null ? "?" + query : "");
+        return "W/\"" + ETAG_EPOCH + "-" + hostelManager.getDataVersion() + "-" +
+               Integer.toHexString(uri.hashCode()) + "\"";
+    }
+
+    private static boolean notModified(HttpExchange exchange, String etag) throws IOException {
+        String header = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                exchange.getResponseHeaders().set("ETag", etag);
+                exchange.sendResponseHeaders(304, -1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String body, String etag) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        if (etag != null) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        try {
+            sendJson(exchange, status, "{\"error\":" + Json.quote(message) + "}", null);
+        } catch (IOException e) {
+            System.err.println("Error sending response: " + e.getMessage());
+        }
+    }
+
+    private interface Appender<T> {
+        void append(StringBuilder out, T item);
+    }
+
+    private static <T> String objectJson(T item, Appender<T> appender) {
+        StringBuilder out = new StringBuilder(256);
+        appender.append(out, item);
+        return out.toString();
+    }
+
+    private static <T> String listJson(List<T> items, Appender<T> appender) {
+        StringBuilder out = new StringBuilder(64 + items.size() * 128);
+        appendList(out, items, appender);
+        return out.toString();
+    }
+
+    private static <T> void appendList(StringBuilder out, List<T> items, Appender<T> appender) {
+        out.append('[');
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            appender.append(out, items.get(i));
+        }
+        out.append(']');
+    }
+
+    private static void appendStudent(StringBuilder out, Student s) {
+        out.append("{\"studentId\":");
+        Json.appendValue(out, s.getStudentId());
+        out.append(",\"name\":");
+        Json.appendValue(out, s.getName());
+        out.append(",\"email\":");
+        Json.appendValue(out, s.getEmail());
+        out.append(",\"phone\":");
+        Json.appendValue(out, s.getPhone());
+        out.append(",\"department\":");
+        Json.appendValue(out, s.getDepartment());
+        out.append(",\"version\":").append(s.getVersion()).append('}');
+    }
+
+    private static void appendRoom(StringBuilder out, Room r) {
+        out.append("{\"roomNumber\":");
+        Json.appendValue(out, r.getRoomNumber());
+        out.append(",\"roomType\":");
+        Json.appendValue(out, r.getRoomType());
+        out.append(",\"capacity\":").append(r.getCapacity())
+           .append(",\"occupied\":").append(r.getOccupied())
+           .append(",\"rentPerBed\":").append(r.getRentPerBed())
+           .append(",\"floor\":");
+        Json.appendValue(out, r.getFloor());
+        out.append(",\"version\":").append(r.getVersion()).append('}');
+    }
+
+    private static void appendAllocation(StringBuilder out, Allocation a) {
+        out.append("{\"allocationId\":");
+        Json.appendValue(out, a.getAllocationId());
+        out.append(",\"studentId\":");
+        Json.appendValue(out, a.getStudent().getStudentId());
+        out.append(",\"studentName\":");
+        Json.appendValue(out, a.getStudent().getName());
+        out.append(",\"roomNumber\":");
+        Json.appendValue(out, a.getRoom().getRoomNumber());
+        out.append(",\"allocationDate\":");
+        Json.appendValue(out, a.getAllocationDate());
+        out.append(",\"checkoutDate\":");
+        Json.appendValue(out, a.getCheckoutDate());
+        out.append(",\"status\":");
+        Json.appendValue(out, a.getStatus());
+        out.append(",\"version\":").append(a.getVersion()).append('}');
+    }
+
+    private static void appendWaitlistEntry(StringBuilder out, WaitlistEntry w) {
+        out.append("{\"waitlistId\":").append(w.getWaitlistId())
+           .append(",\"studentId\":");
+        Json.appendValue(out, w.getStudentId());
+        out.append(",\"roomType\":");
+        Json.appendValue(out, w.getRoomType());
+        out.append(",\"priority\":").append(w.getPriority())
+           .append(",\"requestedAt\":");
+        Json.appendValue(out, w.getRequestedAt().toInstant());
+        out.append(",\"status\":");
+        Json.appendValue(out, w.getStatus());
+        out.append('}');
+    }
+
+    private static void appendBreakdown(StringBuilder out, HostelReport.Breakdown b) {
+        out.append("{\"label\":");
+        Json.appendValue(out, b.getLabel());
+        out.append(",\"count\":").append(b.getCount())
+           .append(",\"capacity\":").append(b.getCapacity())
+           .append(",\"occupied\":").append(b.getOccupied())
+           .append(",\"activeAllocations\":").append(b.getActiveAllocations())
+           .append(",\"revenue\":").append(b.getRevenue()).append('}');
+    }
+
+    private static Student studentFromBody(Map<String, Object> body, String pathId) {
+        String studentId = pathId != null ? pathId : required(body, "studentId");
+        return new Student(studentId, required(body, "name"), optional(body, "email"),
+                           optional(body, "phone"), optional(body, "department"));
+    }
+
+    private static Room roomFromBody(Map<String, Object> body) {
+        Object capacity = body.get("capacity");
+        Object rent = body.get("rentPerBed");
+        if (!(capacity instanceof Double) || !(rent instanceof Double)) {
+            throw new IllegalArgumentException("capacity and rentPerBed must be numbers");
+        }
+        return new Room(required(body, "roomNumber"), required(body, "roomType"),
+                        ((Double) capacity).intValue(), (Double) rent, optional(body, "floor"));
+    }
+
+    private static String required(Map<String, Object> body, String field) {
+        String value = optional(body, field);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Missing field: " + field);
+        }
+        return value.trim();
+    }
+
+    private static String optional(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        return value != null ? value.toString() : null;
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        try (InputStream in = exchange.getRequestBody()) {
+            int n;
+            while ((n = in.read(chunk)) > 0) {
+                if (buffer.size() + n > DatabaseConfig.API_MAX_BODY_BYTES) {
+                    throw new ApiException(413, "Request body too large");
+                }
+                buffer.write(chunk, 0, n);
+            }
+        }
+        return Json.parseObject(new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static String[] segments(String rawPath) {
+        String rest = rawPath.substring("/api/".length());
+        if (rest.isEmpty()) {
+            return new String[0];
+        }
+        String[] parts = rest.split("/");
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = URLDecoder.decode(parts[i], StandardCharsets.UTF_8);
+        }
+        return parts;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> params = new HashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            String value = eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            params.put(name, value);
+        }
+        return params;
+    }
+
+    private static int limit(Map<String, String> query, int defaultLimit) {
+        return Math.min(intParam(query, "limit", defaultLimit), DatabaseConfig.MAX_PAGE_SIZE);
+    }
+
+    private static int intParam(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 1) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DatabaseConfig.API_PORT;
+        HostelManager hostelManager;
+        try {
+            hostelManager = new HostelManager();
+        } catch (IllegalStateException e) {
+            System.err.println("Error starting up: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        try {
+            HostelApiServer api = new HostelApiServer(hostelManager, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                api.stop();
+                hostelManager.close();
+            }));
+            api.start();
+        } catch (IOException e) {
+            System.err.println("Error starting HTTP API: " + e.getMessage());
+            hostelManager.close();
+        }
+    }
+}
@@ -1,31 +1,67 @@
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class HostelManagementGUI extends JFrame {
     private HostelManager hostelManager;
     private JTabbedPane tabbedPane;
+    private BackgroundLoader loader;
+    private final Set<String> loadingKeys = new HashSet<>();
+    private final Set<Integer> loadedTabs = new HashSet<>();
+    private final StartupTimer startup = new StartupTimer();
+    // Follow-up queries caused by change events, run at most once per interval instead of per event.
+    private final Timer changeRefresh = new Timer(DatabaseConfig.CHANGE_REFRESH_COALESCE_MS, e -> flushChangeRefresh());
+    private boolean studentSearchStale, studentOptionsStale, roomOptionsStale;
+    
+    private static final String APP_TITLE = "Hostel Management System";
+    
+    private static final String[] TAB_TITLES = {"Students", "Rooms", "Allocations", "Reports"};
+    private static final Map<String, Integer> LOAD_KEY_TABS = new HashMap<>();
+    static {
+        LOAD_KEY_TABS.put("students", 0);
+        LOAD_KEY_TABS.put("rooms", 1);
+        LOAD_KEY_TABS.put("allocations", 2);
+        LOAD_KEY_TABS.put("studentOptions", 2);
+        LOAD_KEY_TABS.put("roomOptions", 2);
+        LOAD_KEY_TABS.put("report", 3);
+    }
     
     private JTextField studentIdField, studentNameField, studentEmailField;
     private JTextField studentPhoneField, studentDeptField;
     private JTable studentTable;
-    private DefaultTableModel studentTableModel;
+    private JTextField studentSearchField;
+    private ListTableModel<Student> studentTableModel;
+    // Version of the student loaded into the form; an update only applies if it is unchanged.
+    private long editingStudentVersion;
     
     private JTextField roomNumberField, roomFloorField;
     private JComboBox<String> roomTypeCombo;
     private JSpinner rentSpinner;
     private JTable roomTable;
-    private DefaultTableModel roomTableModel;
+    private ListTableModel<Room> roomTableModel;
     private JButton filterAvailableButton;
     private boolean showOnlyAvailable = false;
     
     private JComboBox<String> allocStudentCombo, allocRoomCombo;
+    private TypeAheadCombo studentTypeAhead, roomTypeAhead;
+    private JProgressBar exportProgress;
+    private JTextArea reportArea;
+    private JButton reportButton;
+    private ListTableModel<ReportRenderer.Row> reportTableModel;
+    private CardLayout reportCards;
+    private ReportRenderer reportRenderer;
+    private SwingWorker<Long, Long> exportWorker;
     private JTable allocationTable;
-    private DefaultTableModel allocationTableModel;
+    private ListTableModel<Allocation> allocationTableModel;
     private JButton filterActiveButton;
     private boolean showOnlyActive = false;
     
@@ -37,9 +73,13 @@ public class HostelManagementGUI extends JFrame {
     private static final Color BG_COLOR = new Color(245, 245, 245);
     
     public HostelManagementGUI() {
-        hostelManager = new HostelManager();
+        startup.mark("GUI construction started");
+        loader = new BackgroundLoader(this::updateLoadingState);
+        changeRefresh.setRepeats(false);
+        // Connect and migrate while the window is being built; tabs load once this finishes.
+        connectInBackground();
         
-        setTitle("Hostel Management System");
+        setTitle(APP_TITLE + " - connecting...");
         setSize(1200, 800);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
@@ -54,13 +94,99 @@ public class HostelManagementGUI extends JFrame {
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
-                hostelManager.close();
+                if (hostelManager != null) {
+                    hostelManager.close();
+                }
             }
         });
         
         initComponents();
-        loadInitialData();
+        showStartupBlocker();
         setVisible(true);
+        startup.mark("window visible");
+    }
+    
+    private void connectInBackground() {
+        new SwingWorker<HostelManager, Void>() {
+            @Override
+            protected HostelManager doInBackground() {
+                return new HostelManager();
+            }
+            
+            @Override
+            protected void done() {
+                // The blocker stays up until a connection succeeds, so no control can reach a null hostelManager.
+                try {
+                    hostelManager = get();
+                } catch (java.util.concurrent.ExecutionException e) {
+                    System.err.println("Error starting up: " + e.getCause().getMessage());
+                    offerReconnect(e.getCause().getMessage());
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                getGlassPane().setVisible(false);
+                startup.mark("database connected");
+                hostelManager.addDataChangeListener(event -> SwingUtilities.invokeLater(() -> applyChange(event)));
+                setTitle(APP_TITLE);
+                loadTab(tabbedPane.getSelectedIndex());
+            }
+        }.execute();
+    }
+    
+    private void offerReconnect(String reason) {
+        setTitle(APP_TITLE + " - database unavailable");
+        Object[] options = {"Retry", "Exit"};
+        int choice = JOptionPane.showOptionDialog(this,
+            "Could not connect to the database:\n" + reason,
+            "Database Error", JOptionPane.YES_NO_OPTION, JOptionPane.ERROR_MESSAGE,
+            null, options, options[0]);
+        if (choice != 0) {
+            dispose();
+            System.exit(1);
+        }
+        setTitle(APP_TITLE + " - connecting...");
+        getGlassPane().requestFocusInWindow();
+        connectInBackground();
+    }
+    
+    // Blocks mouse and keyboard input on the window until the database is ready.
+    private void showStartupBlocker() {
+        JPanel blocker = new JPanel();
+        blocker.setOpaque(false);
+        blocker.addMouseListener(new MouseAdapter() { });
+        blocker.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) { e.consume(); }
+        });
+        blocker.setFocusable(true);
+        blocker.setFocusTraversalKeysEnabled(false);
+        blocker.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        setGlassPane(blocker);
+        blocker.setVisible(true);
+        blocker.requestFocusInWindow();
+    }
+    
+    // Each tab loads its data the first time it is shown; its datasets load in parallel.
+    private void loadTab(int tab) {
+        if (hostelManager == null || !loadedTabs.add(tab)) {
+            return;
+        }
+        switch (tab) {
+            case 0:
+                refreshStudentTable();
+                break;
+            case 1:
+                refreshRoomTable();
+                break;
+            case 2:
+                refreshAllocationTable();
+                refreshAllocationDropdowns();
+                break;
+            default:
+                break;
+        }
     }
     
     private void initComponents() {
@@ -70,14 +196,36 @@ public class HostelManagementGUI extends JFrame {
         tabbedPane.setBackground(PRIMARY_COLOR);
         tabbedPane.setForeground(Color.WHITE);
         
-        tabbedPane.addTab("Students", createStudentPanel());
-        tabbedPane.addTab("Rooms", createRoomPanel());
-        tabbedPane.addTab("Allocations", createAllocationPanel());
-        tabbedPane.addTab("Reports", createReportPanel());
+        tabbedPane.addTab(TAB_TITLES[0], createStudentPanel());
+        tabbedPane.addTab(TAB_TITLES[1], createRoomPanel());
+        tabbedPane.addTab(TAB_TITLES[2], createAllocationPanel());
+        tabbedPane.addTab(TAB_TITLES[3], createReportPanel());
         
+        tabbedPane.addChangeListener(e -> loadTab(tabbedPane.getSelectedIndex()));
         add(tabbedPane);
     }
     
+    private void updateLoadingState(String key, boolean loading) {
+        if (loading) {
+            loadingKeys.add(key);
+        } else {
+            loadingKeys.remove(key);
+            startup.markOnce(key + " first loaded");
+        }
+        Integer tab = LOAD_KEY_TABS.get(key);
+        if (tab == null) {
+            return;
+        }
+        boolean tabLoading = false;
+        for (String loadingKey : loadingKeys) {
+            if (tab.equals(LOAD_KEY_TABS.get(loadingKey))) {
+                tabLoading = true;
+                break;
+            }
+        }
+        tabbedPane.setTitleAt(tab, tabLoading ? TAB_TITLES[tab] + " (loading...)" : TAB_TITLES[tab]);
+    }
+    
 
     private JPanel createStudentPanel() {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
@@ -95,30 +243,25 @@ public class HostelManagementGUI extends JFrame {
             new Font("Segoe UI", Font.BOLD, 11),
             PRIMARY_COLOR
         ));
-        JLabel searchLabel = new JLabel("Search by ID or Name:");
+        JLabel searchLabel = new JLabel("Search by ID, Name, Email or Phone:");
         searchLabel.setFont(new Font("Segoe UI", Font.BOLD, 11));
         searchLabel.setForeground(HEADER_COLOR);
-        JTextField searchField = new JTextField(20);
-        searchField.setFont(new Font("Segoe UI", Font.PLAIN, 11));
-        JButton searchButton = createStyledButton("Search", PRIMARY_COLOR);
+        studentSearchField = new JTextField(20);
+        studentSearchField.setFont(new Font("Segoe UI", Font.PLAIN, 11));
         JButton clearSearchButton = createStyledButton("Clear", SECONDARY_COLOR);
         
-        searchButton.addActionListener(e -> {
-            String query = searchField.getText().trim();
-            if (query.isEmpty()) {
-                refreshStudentTable();
-            } else {
-                searchStudents(query);
-            }
-        });
-        clearSearchButton.addActionListener(e -> {
-            searchField.setText("");
-            refreshStudentTable();
+        studentSearchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) { refreshStudentTable(); }
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) { refreshStudentTable(); }
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) { refreshStudentTable(); }
         });
+        clearSearchButton.addActionListener(e -> studentSearchField.setText(""));
         
         searchPanel.add(searchLabel);
-        searchPanel.add(searchField);
-        searchPanel.add(searchButton);
+        searchPanel.add(studentSearchField);
         searchPanel.add(clearSearchButton);
         
 
@@ -235,13 +378,13 @@ public class HostelManagementGUI extends JFrame {
         formPanel.add(buttonPanel, gbc);
         
 
-        String[] columnNames = {"Student ID", "Name", "Email", "Phone", "Department"};
-        studentTableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        studentTableModel = new ListTableModel<Student>(Student::getStudentId,
+                Comparator.comparing(Student::getStudentId))
+            .addColumn("Student ID", Student::getStudentId)
+            .addColumn("Name", Student::getName)
+            .addColumn("Email", Student::getEmail)
+            .addColumn("Phone", Student::getPhone)
+            .addColumn("Department", Student::getDepartment);
         studentTable = new JTable(studentTableModel);
         studentTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         studentTable.setFont(new Font("Segoe UI", Font.PLAIN, 11));
@@ -291,33 +434,20 @@ public class HostelManagementGUI extends JFrame {
     }
     
     private void searchStudents(String query) {
-        studentTableModel.setRowCount(0);
-        List<Student> students = hostelManager.getAllStudents();
-        String lowerQuery = query.toLowerCase();
-        
-        for (Student s : students) {
-            if (s.getStudentId().toLowerCase().contains(lowerQuery) ||
-                s.getName().toLowerCase().contains(lowerQuery)) {
-                studentTableModel.addRow(new Object[]{
-                    s.getStudentId(), s.getName(), s.getEmail(), s.getPhone(), s.getDepartment()
-                });
-            }
-        }
+        loader.load("students", () -> hostelManager.searchStudents(query, DatabaseConfig.SEARCH_RESULT_LIMIT),
+            this::showStudents);
     }
     
     private void populateStudentForm(int row) {
-        String studentId = (String) studentTableModel.getValueAt(row, 0);
-        String name = (String) studentTableModel.getValueAt(row, 1);
-        String email = (String) studentTableModel.getValueAt(row, 2);
-        String phone = (String) studentTableModel.getValueAt(row, 3);
-        String dept = (String) studentTableModel.getValueAt(row, 4);
+        Student student = studentTableModel.getRow(row);
         
-        studentIdField.setText(studentId);
+        studentIdField.setText(student.getStudentId());
         studentIdField.setEditable(false);
-        studentNameField.setText(name);
-        studentEmailField.setText(email);
-        studentPhoneField.setText(phone);
-        studentDeptField.setText(dept);
+        studentNameField.setText(student.getName());
+        studentEmailField.setText(student.getEmail());
+        studentPhoneField.setText(student.getPhone());
+        studentDeptField.setText(student.getDepartment());
+        editingStudentVersion = student.getVersion();
     }
     
     private void updateStudent() {
@@ -334,15 +464,27 @@ public class HostelManagementGUI extends JFrame {
         }
         
         Student student = new Student(id, name, email, phone, dept);
-        if (hostelManager.updateStudent(student)) {
-            JOptionPane.showMessageDialog(this, "Student updated successfully!", 
-                "Success", JOptionPane.INFORMATION_MESSAGE);
-            clearStudentFields();
-            refreshStudentTable();
-        } else {
-            JOptionPane.showMessageDialog(this, "Failed to update student!", 
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        student.setVersion(editingStudentVersion);
+        loader.submit("student update", () -> hostelManager.updateStudent(student), outcome -> {
+            if (outcome == UpdateOutcome.UPDATED) {
+                JOptionPane.showMessageDialog(this, "Student updated successfully!", 
+                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                clearStudentFields();
+            } else if (outcome == UpdateOutcome.CONFLICT) {
+                JOptionPane.showMessageDialog(this, 
+                    "This student was changed by someone else. Reload it and apply your edits again.", 
+                    "Update Conflict", JOptionPane.WARNING_MESSAGE);
+                clearStudentFields();
+                refreshStudentTable();
+            } else if (outcome == UpdateOutcome.NOT_FOUND) {
+                JOptionPane.showMessageDialog(this, "This student no longer exists!", 
+                    "Error", JOptionPane.ERROR_MESSAGE);
+                clearStudentFields();
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to update student!", 
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
     
     private void clearStudentFields() {
@@ -352,6 +494,7 @@ public class HostelManagementGUI extends JFrame {
         studentEmailField.setText("");
         studentPhoneField.setText("");
         studentDeptField.setText("");
+        editingStudentVersion = 0;
     }
     
     private void addStudent() {
@@ -368,15 +511,16 @@ public class HostelManagementGUI extends JFrame {
         }
         
         Student student = new Student(id, name, email, phone, dept);
-        if (hostelManager.addStudent(student)) {
-            JOptionPane.showMessageDialog(this, "Student added successfully!", 
-                "Success", JOptionPane.INFORMATION_MESSAGE);
-            clearStudentFields();
-            refreshStudentTable();
-        } else {
-            JOptionPane.showMessageDialog(this, "Failed to add student. ID may already exist!", 
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        loader.submit("student add", () -> hostelManager.addStudent(student), added -> {
+            if (added) {
+                JOptionPane.showMessageDialog(this, "Student added successfully!", 
+                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                clearStudentFields();
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to add student. ID may already exist!", 
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
     
     private void deleteStudent() {
@@ -387,37 +531,40 @@ public class HostelManagementGUI extends JFrame {
             return;
         }
         
-        String studentId = (String) studentTableModel.getValueAt(selectedRow, 0);
-        String studentName = (String) studentTableModel.getValueAt(selectedRow, 1);
+        Student selected = studentTableModel.getRow(selectedRow);
+        String studentId = selected.getStudentId();
+        String studentName = selected.getName();
         int confirm = JOptionPane.showConfirmDialog(this, 
             "Are you sure you want to delete student: " + studentName + "?\n" +
             "This will also remove all their room allocations.", 
             "Confirm Delete", JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            if (hostelManager.removeStudent(studentId)) {
-                JOptionPane.showMessageDialog(this, "Student deleted successfully!\n" +
-                    "All related allocations have been removed.", 
-                    "Success", JOptionPane.INFORMATION_MESSAGE);
-                clearStudentFields();
-                refreshStudentTable();
-                refreshAllocationTable();
-                refreshRoomTable();
-            } else {
-                JOptionPane.showMessageDialog(this, "Failed to delete student!", 
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            loader.submit("student delete", () -> hostelManager.removeStudent(studentId), removed -> {
+                if (removed) {
+                    JOptionPane.showMessageDialog(this, "Student deleted successfully!\n" +
+                        "All related allocations have been removed.", 
+                        "Success", JOptionPane.INFORMATION_MESSAGE);
+                    clearStudentFields();
+                } else {
+                    JOptionPane.showMessageDialog(this, "Failed to delete student!", 
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
     
     private void refreshStudentTable() {
-        studentTableModel.setRowCount(0);
-        List<Student> students = hostelManager.getAllStudents();
-        for (Student s : students) {
-            studentTableModel.addRow(new Object[]{
-                s.getStudentId(), s.getName(), s.getEmail(), s.getPhone(), s.getDepartment()
-            });
+        String query = studentSearchField.getText().trim();
+        if (!query.isEmpty()) {
+            searchStudents(query);
+            return;
         }
+        loader.load("students", hostelManager::getAllStudents, this::showStudents);
+    }
+    
+    private void showStudents(List<Student> students) {
+        studentTableModel.setRows(students);
     }
     
     private JButton createStyledButton(String text, Color bgColor) {
@@ -455,42 +602,21 @@ public class HostelManagementGUI extends JFrame {
     }
     
     
-    private void setupSearchableCombo(JComboBox<String> comboBox) {
-        JTextField textField = (JTextField) comboBox.getEditor().getEditorComponent();
-        textField.addKeyListener(new KeyAdapter() {
-            @Override
-            public void keyReleased(KeyEvent e) {
-                try {
-                    String searchText = textField.getText().toLowerCase();
-                    if (searchText.isEmpty()) {
-                        comboBox.showPopup();
-                        return;
-                    }
-                    
-
-                    comboBox.showPopup();
-                } catch (Exception ex) {
-
-                    ex.printStackTrace();
-                }
-            }
-        });
+    private void refreshAllocationDropdowns() {
+        studentTypeAhead.refresh();
+        roomTypeAhead.refresh();
     }
     
+    private List<String> findStudentOptions(String prefix) {
+        return hostelManager.findStudentsByPrefix(prefix, DatabaseConfig.TYPE_AHEAD_LIMIT).stream()
+            .map(s -> s.getStudentId() + " - " + s.getName())
+            .collect(Collectors.toList());
+    }
     
-    private void refreshAllocationDropdowns() {
-        allocStudentCombo.removeAllItems();
-        allocRoomCombo.removeAllItems();
-        
-        List<Student> students = hostelManager.getAllStudents();
-        for (Student s : students) {
-            allocStudentCombo.addItem(s.getStudentId() + " - " + s.getName());
-        }
-        
-        List<Room> availableRooms = hostelManager.getAvailableRooms();
-        for (Room r : availableRooms) {
-            allocRoomCombo.addItem(r.getRoomNumber() + " (" + r.getAvailableBeds() + " available)");
-        }
+    private List<String> findRoomOptions(String prefix) {
+        return hostelManager.findAvailableRoomsByPrefix(prefix, DatabaseConfig.TYPE_AHEAD_LIMIT).stream()
+            .map(r -> r.getRoomNumber() + " (" + r.getAvailableBeds() + " available)")
+            .collect(Collectors.toList());
     }
     
 
@@ -584,13 +710,15 @@ public class HostelManagementGUI extends JFrame {
         formPanel.add(buttonPanel, gbc);
         
 
-        String[] columnNames = {"Room Number", "Type", "Capacity", "Occupied", "Available", "Rent (Rs Rs )", "Floor"};
-        roomTableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        roomTableModel = new ListTableModel<Room>(Room::getRoomNumber,
+                Comparator.comparing(Room::getRoomNumber))
+            .addColumn("Room Number", Room::getRoomNumber)
+            .addColumn("Type", Room::getRoomType)
+            .addColumn("Capacity", Room::getCapacity)
+            .addColumn("Occupied", Room::getOccupied)
+            .addColumn("Available", Room::getAvailableBeds)
+            .addColumn("Rent (Rs Rs )", Room::getRentPerBed)
+            .addColumn("Floor", Room::getFloor);
         roomTable = new JTable(roomTableModel);
         roomTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         roomTable.setFont(new Font("Segoe UI", Font.PLAIN, 11));
@@ -645,37 +773,29 @@ public class HostelManagementGUI extends JFrame {
         }
         
         Room room = new Room(roomNumber, roomType, capacity, rent, floor);
-        if (hostelManager.addRoom(room)) {
-            JOptionPane.showMessageDialog(this, "Room added successfully!", 
-                "Success", JOptionPane.INFORMATION_MESSAGE);
-            clearRoomFields();
-            refreshRoomTable();
-        } else {
-            JOptionPane.showMessageDialog(this, "Failed to add room. Room number may already exist!", 
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        loader.submit("room add", () -> hostelManager.addRoom(room), added -> {
+            if (added) {
+                JOptionPane.showMessageDialog(this, "Room added successfully!", 
+                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                clearRoomFields();
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to add room. Room number may already exist!", 
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
     
     private void refreshRoomTable(boolean availableOnly) {
-        roomTableModel.setRowCount(0);
-        List<Room> rooms = availableOnly ? hostelManager.getAvailableRooms() : hostelManager.getAllRooms();
-        for (Room r : rooms) {
-            roomTableModel.addRow(new Object[]{
-                r.getRoomNumber(), r.getRoomType(), r.getCapacity(), 
-                r.getOccupied(), r.getAvailableBeds(), r.getRentPerBed(), r.getFloor()
-            });
-        }
+        loader.load("rooms", () -> availableOnly ? hostelManager.getAvailableRooms() : hostelManager.getAllRooms(),
+            this::showRooms);
     }
     
     private void refreshRoomTable() {
-        roomTableModel.setRowCount(0);
-        List<Room> rooms = showOnlyAvailable ? hostelManager.getAvailableRooms() : hostelManager.getAllRooms();
-        for (Room r : rooms) {
-            roomTableModel.addRow(new Object[]{
-                r.getRoomNumber(), r.getRoomType(), r.getCapacity(), 
-                r.getOccupied(), r.getAvailableBeds(), r.getRentPerBed(), r.getFloor()
-            });
-        }
+        refreshRoomTable(showOnlyAvailable);
+    }
+    
+    private void showRooms(List<Room> rooms) {
+        roomTableModel.setRows(rooms);
     }
     
     private void toggleAvailableRoomFilter() {
@@ -728,7 +848,8 @@ public class HostelManagementGUI extends JFrame {
         allocStudentCombo = new JComboBox<>();
         allocStudentCombo.setFont(new Font("Segoe UI", Font.PLAIN, 11));
         allocStudentCombo.setEditable(true);
-        setupSearchableCombo(allocStudentCombo);
+        studentTypeAhead = new TypeAheadCombo(allocStudentCombo, loader, "studentOptions", this::findStudentOptions,
+            DatabaseConfig.TYPE_AHEAD_DEBOUNCE_MS, DatabaseConfig.TYPE_AHEAD_CACHE_SIZE);
         formPanel.add(allocStudentCombo, gbc);
         
 
@@ -741,7 +862,8 @@ public class HostelManagementGUI extends JFrame {
         allocRoomCombo = new JComboBox<>();
         allocRoomCombo.setFont(new Font("Segoe UI", Font.PLAIN, 11));
         allocRoomCombo.setEditable(true);
-        setupSearchableCombo(allocRoomCombo);
+        roomTypeAhead = new TypeAheadCombo(allocRoomCombo, loader, "roomOptions", this::findRoomOptions,
+            DatabaseConfig.TYPE_AHEAD_DEBOUNCE_MS, DatabaseConfig.TYPE_AHEAD_CACHE_SIZE);
         formPanel.add(allocRoomCombo, gbc);
         
 
@@ -751,8 +873,12 @@ public class HostelManagementGUI extends JFrame {
         JButton deallocateButton = createStyledButton(" Deallocate", DANGER_COLOR);
         JButton refreshButton = createStyledButton(" Refresh", SECONDARY_COLOR);
         filterActiveButton = createStyledButton(" Show All", PRIMARY_COLOR);
+        JButton bulkAllocateButton = createStyledButton(" Bulk Allocate", HEADER_COLOR);
+        JButton waitlistButton = createStyledButton(" Waitlist", SECONDARY_COLOR);
         
         allocateButton.addActionListener(e -> allocateRoom());
+        bulkAllocateButton.addActionListener(e -> bulkAllocate());
+        waitlistButton.addActionListener(e -> showWaitlist());
         deallocateButton.addActionListener(e -> deallocateRoom());
         refreshButton.addActionListener(e -> {
             refreshAllocationTable();
@@ -764,19 +890,22 @@ public class HostelManagementGUI extends JFrame {
         buttonPanel.add(deallocateButton);
         buttonPanel.add(refreshButton);
         buttonPanel.add(filterActiveButton);
+        buttonPanel.add(bulkAllocateButton);
+        buttonPanel.add(waitlistButton);
         
         gbc.gridx = 0; gbc.gridy = 2; gbc.gridwidth = 2;
         formPanel.add(buttonPanel, gbc);
         
 
-        String[] columnNames = {"Allocation ID", "Student ID", "Student Name", "Room Number", 
-                                "Allocation Date", "Checkout Date", "Status"};
-        allocationTableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        allocationTableModel = new ListTableModel<Allocation>(Allocation::getAllocationId,
+                Comparator.comparing(Allocation::getAllocationDate).reversed())
+            .addColumn("Allocation ID", Allocation::getAllocationId)
+            .addColumn("Student ID", a -> a.getStudent().getStudentId())
+            .addColumn("Student Name", a -> a.getStudent().getName())
+            .addColumn("Room Number", a -> a.getRoom().getRoomNumber())
+            .addColumn("Allocation Date", Allocation::getAllocationDate)
+            .addColumn("Checkout Date", a -> a.getCheckoutDate() != null ? a.getCheckoutDate() : "N/A")
+            .addColumn("Status", Allocation::getStatus);
         allocationTable = new JTable(allocationTableModel);
         allocationTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         allocationTable.setFont(new Font("Segoe UI", Font.PLAIN, 11));
@@ -829,21 +958,82 @@ public class HostelManagementGUI extends JFrame {
             return;
         }
         
-        if (hostelManager.allocateRoom(studentId, roomNumber)) {
-            JOptionPane.showMessageDialog(this, " Room allocated successfully!", 
-                "Success", JOptionPane.INFORMATION_MESSAGE);
-            allocStudentCombo.setSelectedIndex(-1);
-            allocRoomCombo.setSelectedIndex(-1);
-            refreshAllocationTable();
-            refreshAllocationDropdowns();
-            refreshRoomTable();
-        } else {
-            JOptionPane.showMessageDialog(this, 
-                "Failed to allocate room!\nReasons:\n" +
-                "- Student or Room not found\n" +
-                "- Room is full\n" +
-                "- Student already has an active allocation", 
-                "Error", JOptionPane.ERROR_MESSAGE);
+        String selectedStudentId = studentId;
+        String selectedRoomNumber = roomNumber;
+        loader.submit("allocation", () -> hostelManager.allocateRoom(selectedStudentId, selectedRoomNumber), allocated -> {
+            if (allocated) {
+                JOptionPane.showMessageDialog(this, " Room allocated successfully!", 
+                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                allocStudentCombo.setSelectedIndex(-1);
+                allocRoomCombo.setSelectedIndex(-1);
+                refreshAllocationDropdowns();
+            } else {
+                JOptionPane.showMessageDialog(this, 
+                    "Failed to allocate room!\nReasons:\n" +
+                    "- Student or Room not found\n" +
+                    "- Room is full\n" +
+                    "- Student already has an active allocation", 
+                    "Error", JOptionPane.ERROR_MESSAGE);
+                offerWaitlist(selectedStudentId, selectedRoomNumber);
+            }
+        });
+    }
+    
+    // When the chosen room is full, offers to queue the student for the next bed of its type.
+    private void offerWaitlist(String studentId, String roomNumber) {
+        loader.submit("room lookup", () -> hostelManager.findRoomByNumber(roomNumber), room -> {
+            if (room == null || room.isAvailable()) {
+                return;
+            }
+            String priority = JOptionPane.showInputDialog(this,
+                "Room " + roomNumber + " is full. Add " + studentId + " to the waitlist for " +
+                room.getRoomType() + " rooms?\nPriority (higher is served first):", "0");
+            if (priority == null) {
+                return;
+            }
+            int value;
+            try {
+                value = Integer.parseInt(priority.trim());
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Priority must be a whole number!",
+                    "Validation Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            loader.submit("waitlist", () -> hostelManager.joinWaitlist(studentId, room.getRoomType(), value), entry -> {
+                if (entry != null) {
+                    JOptionPane.showMessageDialog(this, " Added to the waitlist.\n" + entry,
+                        "Waitlist", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Could not add to the waitlist.\nThe student may already be waiting.",
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
+        });
+    }
+    
+    private void showWaitlist() {
+        List<WaitlistEntry> entries = hostelManager.getWaitlist();
+        if (entries.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Nobody is waiting for a room.", "Waitlist",
+                JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        JList<WaitlistEntry> list = new JList<>(entries.toArray(new WaitlistEntry[0]));
+        list.setFont(new Font("Monospaced", Font.PLAIN, 11));
+        JScrollPane pane = new JScrollPane(list);
+        pane.setPreferredSize(new Dimension(620, 300));
+        Object[] options = {"Cancel Selected", "Close"};
+        int choice = JOptionPane.showOptionDialog(this, pane, "Waitlist (" + entries.size() + " waiting)",
+            JOptionPane.DEFAULT_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[1]);
+        WaitlistEntry selected = list.getSelectedValue();
+        if (choice == 0 && selected != null) {
+            loader.submit("waitlist cancel", () -> hostelManager.cancelWaitlistEntry(selected.getWaitlistId()), cancelled -> {
+                if (!cancelled) {
+                    JOptionPane.showMessageDialog(this, "The entry is no longer waiting.",
+                        "Waitlist", JOptionPane.INFORMATION_MESSAGE);
+                }
+                showWaitlist();
+            });
         }
     }
     
@@ -866,43 +1056,125 @@ public class HostelManagementGUI extends JFrame {
             "Confirm Deallocate", JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            if (hostelManager.deallocateRoom(studentId)) {
-                JOptionPane.showMessageDialog(this, " Room deallocated successfully!", 
-                    "Success", JOptionPane.INFORMATION_MESSAGE);
-                allocStudentCombo.setSelectedIndex(-1);
-                refreshAllocationTable();
-                refreshAllocationDropdowns();
-                refreshRoomTable();
-            } else {
-                JOptionPane.showMessageDialog(this, 
-                    "Failed to deallocate room!\nNo active allocation found for this student.", 
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            String selectedStudentId = studentId;
+            loader.submit("deallocation", () -> hostelManager.deallocateRoom(selectedStudentId), deallocated -> {
+                if (deallocated) {
+                    JOptionPane.showMessageDialog(this, " Room deallocated successfully!", 
+                        "Success", JOptionPane.INFORMATION_MESSAGE);
+                    allocStudentCombo.setSelectedIndex(-1);
+                    refreshAllocationDropdowns();
+                } else {
+                    JOptionPane.showMessageDialog(this, 
+                        "Failed to deallocate room!\nNo active allocation found for this student.", 
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
     
-    private void refreshAllocationTable() {
-        allocationTableModel.setRowCount(0);
-        List<Allocation> allocations = hostelManager.getAllAllocations();
-        
-
-        if (showOnlyActive) {
-            allocations = allocations.stream()
-                .filter(a -> a.getStatus().equals("Active"))
-                .collect(Collectors.toList());
+    // Places every student without an active allocation in one run. The first run is a dry
+    // run by default; its plan is shown and can then be committed.
+    private void bulkAllocate() {
+        JCheckBox groupBox = new JCheckBox("Keep departments together", true);
+        JTextField typesField = new JTextField("Double, Triple, Single");
+        JCheckBox typesOnlyBox = new JCheckBox("Only these room types");
+        JTextField floorsField = new JTextField();
+        JTextField perFloorField = new JTextField("0");
+        JTextField maxRentField = new JTextField("0");
+        JCheckBox dryRunBox = new JCheckBox("Dry run (preview only)", true);
+        
+        JPanel form = new JPanel(new GridLayout(0, 2, 8, 6));
+        form.add(new JLabel("Room types (preferred first):"));
+        form.add(typesField);
+        form.add(new JLabel(""));
+        form.add(typesOnlyBox);
+        form.add(new JLabel("Floors (blank for all):"));
+        form.add(floorsField);
+        form.add(new JLabel("Max per floor (0 = no limit):"));
+        form.add(perFloorField);
+        form.add(new JLabel("Max rent per bed (0 = no cap):"));
+        form.add(maxRentField);
+        form.add(groupBox);
+        form.add(dryRunBox);
+        
+        if (JOptionPane.showConfirmDialog(this, form, "Bulk Allocation", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
         }
-        
-        for (Allocation a : allocations) {
-            allocationTableModel.addRow(new Object[]{
-                a.getAllocationId(),
-                a.getStudent().getStudentId(),
-                a.getStudent().getName(),
-                a.getRoom().getRoomNumber(),
-                a.getAllocationDate(),
-                a.getCheckoutDate() != null ? a.getCheckoutDate() : "N/A",
-                a.getStatus()
+        BulkAllocator.Constraints constraints;
+        try {
+            constraints = new BulkAllocator.Constraints()
+                .groupByDepartment(groupBox.isSelected())
+                .preferRoomTypes(splitList(typesField.getText()), typesOnlyBox.isSelected())
+                .floors(splitList(floorsField.getText()))
+                .maxPerFloor(Integer.parseInt(perFloorField.getText().trim()))
+                .maxRentPerBed(Double.parseDouble(maxRentField.getText().trim()));
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Max per floor and max rent must be numbers!",
+                "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        runBulkAllocation(constraints, dryRunBox.isSelected());
+    }
+    
+    private void runBulkAllocation(BulkAllocator.Constraints constraints, boolean dryRun) {
+        loader.submit(dryRun ? "bulk allocation preview" : "bulk allocation",
+            () -> new BulkAllocator(hostelManager).allocate(hostelManager.getUnallocatedStudents(), constraints, dryRun),
+            result -> {
+                StringBuilder text = new StringBuilder(result.toString()).append("\n\n");
+                int shown = 0;
+                for (BulkAllocationResult.Placement placement : result.getPlacements()) {
+                    if (shown++ == 1000) {
+                        text.append("... ").append(result.getPlacements().size() - 1000).append(" more\n");
+                        break;
+                    }
+                    text.append(placement).append('\n');
+                }
+                JTextArea area = new JTextArea(text.toString(), 20, 70);
+                area.setEditable(false);
+                area.setFont(new Font("Monospaced", Font.PLAIN, 11));
+                JScrollPane pane = new JScrollPane(area);
+                if (dryRun && result.count(BulkAllocationResult.Outcome.PLANNED) > 0) {
+                    int confirm = JOptionPane.showConfirmDialog(this, pane, "Bulk Allocation Plan - Commit?",
+                        JOptionPane.YES_NO_OPTION, JOptionPane.PLAIN_MESSAGE);
+                    if (confirm == JOptionPane.YES_OPTION) {
+                        // Re-planned at commit time, so beds taken since the preview are not reused.
+                        runBulkAllocation(constraints, false);
+                    }
+                } else {
+                    JOptionPane.showMessageDialog(this, pane, "Bulk Allocation", JOptionPane.PLAIN_MESSAGE);
+                    refreshAllocationDropdowns();
+                }
             });
+    }
+    
+    private static List<String> splitList(String text) {
+        List<String> items = new ArrayList<>();
+        for (String item : text.split(",")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
         }
+        return items;
+    }
+    
+    private void refreshAllocationTable() {
+        boolean activeOnly = showOnlyActive;
+        loader.load("allocations", () -> {
+            List<Allocation> allocations = hostelManager.getAllAllocations();
+            
+
+            if (activeOnly) {
+                allocations = allocations.stream()
+                    .filter(a -> a.getStatus().equals("Active"))
+                    .collect(Collectors.toList());
+            }
+            return allocations;
+        }, this::showAllocations);
+    }
+    
+    private void showAllocations(List<Allocation> allocations) {
+        allocationTableModel.setRows(allocations);
     }
     
     private void toggleAllocationFilter() {
@@ -923,15 +1195,31 @@ public class HostelManagementGUI extends JFrame {
         panel.setBackground(BG_COLOR);
         panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
         
-        JTextArea reportArea = new JTextArea();
+        reportArea = new JTextArea();
         reportArea.setEditable(false);
         reportArea.setFont(new Font("Consolas", Font.PLAIN, 12));
         reportArea.setBackground(Color.WHITE);
         reportArea.setForeground(HEADER_COLOR);
-        reportArea.setLineWrap(true);
-        reportArea.setWrapStyleWord(true);
+        // Lines are short; wrapping would re-measure the whole document on every append.
+        reportArea.setLineWrap(false);
         reportArea.setMargin(new Insets(10, 10, 10, 10));
         
+        reportTableModel = new ListTableModel<ReportRenderer.Row>(ReportRenderer.Row::getKey, null)
+            .addColumn("Section", ReportRenderer.Row::getSection)
+            .addColumn("Name", ReportRenderer.Row::getLabel)
+            .addColumn("Count", ReportRenderer.Row::getCount)
+            .addColumn("Beds", ReportRenderer.Row::getCapacity)
+            .addColumn("Occupied", ReportRenderer.Row::getOccupied)
+            .addColumn("Occupancy", ReportRenderer.Row::getOccupancy)
+            .addColumn("Active Allocations", ReportRenderer.Row::getActive)
+            .addColumn("Revenue (Rs)", r -> r.getRevenue() != null ? String.format("%.2f", r.getRevenue()) : null);
+        JTable reportTable = new JTable(reportTableModel);
+        reportTable.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+        reportTable.setRowHeight(25);
+        reportTable.setGridColor(new Color(220, 220, 220));
+        JTableHeader reportHeader = reportTable.getTableHeader();
+        reportHeader.setFont(new Font("Segoe UI", Font.BOLD, 11));
+        
         JScrollPane scrollPane = new JScrollPane(reportArea);
         scrollPane.setBorder(BorderFactory.createTitledBorder(
             BorderFactory.createLineBorder(PRIMARY_COLOR, 1),
@@ -943,71 +1231,219 @@ public class HostelManagementGUI extends JFrame {
         ));
         scrollPane.setBackground(BG_COLOR);
         
-        JButton generateButton = createStyledButton("Generate Report", PRIMARY_COLOR);
-        generateButton.addActionListener(e -> {
-            StringBuilder report = new StringBuilder();
-            report.append("====================================================================\n");
-            report.append("                  HOSTEL MANAGEMENT SYSTEM REPORT                    \n");
-            report.append("====================================================================\n\n");
-            
-            List<Student> students = hostelManager.getAllStudents();
-            List<Room> rooms = hostelManager.getAllRooms();
-            List<Room> availableRooms = hostelManager.getAvailableRooms();
-            List<Allocation> allocations = hostelManager.getAllAllocations();
-            
-            long activeAllocations = allocations.stream()
-                .filter(a -> a.getStatus().equals("Active"))
-                .count();
-            
-            double totalRevenue = allocations.stream()
-                .filter(a -> a.getStatus().equals("Active"))
-                .mapToDouble(a -> a.getRoom().getRentPerBed())
-                .sum();
-            
-            report.append(" SUMMARY STATISTICS\n");
-            report.append("====================================================================\n");
-            report.append(String.format("   Total Students:               %d\n", students.size()));
-            report.append(String.format("    Total Rooms:                %d\n", rooms.size()));
-            report.append(String.format("   Available Rooms:             %d\n", availableRooms.size()));
-            report.append(String.format("   Active Allocations:          %d\n", activeAllocations));
-            report.append(String.format("   Total Monthly Revenue:        Rs %.2f\n", totalRevenue));
-            
-            report.append("\n ROOM OCCUPANCY DETAILS\n");
-            report.append("====================================================================\n");
-            int i = 1;
-            for (Room r : rooms) {
-                double occupancyPercent = (r.getOccupied() * 100.0 / r.getCapacity());
-                String status = occupancyPercent >= 100 ? " FULL" : 
-                               occupancyPercent >= 75 ? " NEARLY FULL" : 
-                               occupancyPercent >= 50 ? " HALF FULL" : " AVAILABLE";
-                
-                report.append(String.format("  %2d. Room %s: %d/%d occupied (%.0f%%) [%s]\n",
-                    i++, r.getRoomNumber(), r.getOccupied(), r.getCapacity(), 
-                    occupancyPercent, status));
+        reportButton = createStyledButton("Generate Report", PRIMARY_COLOR);
+        reportButton.addActionListener(e -> generateReport());
+        
+        reportCards = new CardLayout();
+        JPanel reportViews = new JPanel(reportCards);
+        JScrollPane tableScrollPane = new JScrollPane(reportTable);
+        tableScrollPane.setBorder(scrollPane.getBorder());
+        reportViews.add(tableScrollPane, "table");
+        reportViews.add(scrollPane, "text");
+        JButton viewButton = createStyledButton("Text View", SECONDARY_COLOR);
+        viewButton.addActionListener(e -> {
+            boolean showText = viewButton.getText().equals("Text View");
+            reportCards.show(reportViews, showText ? "text" : "table");
+            viewButton.setText(showText ? "Table View" : "Text View");
+        });
+        JButton rebuildButton = createStyledButton("Rebuild Summary", SECONDARY_COLOR);
+        rebuildButton.addActionListener(e ->
+            loader.submit("summary rebuild", hostelManager::rebuildOccupancySummary, corrected -> {
+                if (corrected < 0) {
+                    JOptionPane.showMessageDialog(this, "Failed to rebuild the occupancy summary!", 
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                JOptionPane.showMessageDialog(this, "Occupancy summary rebuilt.\n" +
+                    corrected + " floor/room type group(s) were corrected.", 
+                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                generateReport();
+            }));
+        
+        JButton exportButton = createStyledButton("Export Data", SUCCESS_COLOR);
+        exportProgress = new JProgressBar();
+        exportProgress.setStringPainted(true);
+        exportProgress.setString("");
+        exportProgress.setVisible(false);
+        exportButton.addActionListener(e -> {
+            if (exportWorker != null && !exportWorker.isDone()) {
+                exportWorker.cancel(false);
+            } else {
+                exportData(exportButton);
             }
-            
-            report.append("\n====================================================================\n");
-            report.append("Report generated on: ").append(java.time.LocalDateTime.now()).append("\n");
-            
-            reportArea.setText(report.toString());
         });
         
         JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         topPanel.setBackground(Color.WHITE);
-        topPanel.add(generateButton);
+        topPanel.add(reportButton);
+        topPanel.add(viewButton);
+        topPanel.add(rebuildButton);
+        topPanel.add(exportButton);
+        topPanel.add(exportProgress);
         
         panel.add(topPanel, BorderLayout.NORTH);
-        panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(reportViews, BorderLayout.CENTER);
         
         return panel;
     }
     
+    // Fetches the aggregates, fills the table view, then renders the text view in chunks.
+    // While either step is running the button cancels it.
+    private void generateReport() {
+        if (reportRenderer != null && !reportRenderer.isDone()) {
+            reportRenderer.cancel(false);
+            return;
+        }
+        if (loader.isLoading("report")) {
+            loader.cancel("report");
+            reportButton.setText("Generate Report");
+            return;
+        }
+        reportButton.setText("Cancel Report");
+        loader.load("report", hostelManager::generateReport, data -> {
+            if (data == null) {
+                reportArea.setText("Failed to generate report. See the error log for details.");
+                reportButton.setText("Generate Report");
+                return;
+            }
+            reportTableModel.setRows(ReportRenderer.tableRows(data));
+            reportArea.setText("");
+            reportRenderer = new ReportRenderer(data, reportArea);
+            reportRenderer.addPropertyChangeListener(evt -> {
+                if ("state".equals(evt.getPropertyName()) && evt.getNewValue() == SwingWorker.StateValue.DONE) {
+                    reportButton.setText("Generate Report");
+                }
+            });
+            reportRenderer.execute();
+        });
+    }
+    
 
-    private void loadInitialData() {
-        refreshStudentTable();
-        refreshRoomTable();
-        refreshAllocationTable();
-        refreshAllocationDropdowns();
+    // Patches the affected rows in place instead of reloading whole tables.
+    private void applyChange(DataChangeEvent event) {
+        String key = event.getKey();
+        switch (event.getEntity()) {
+            case STUDENT:
+                if (event.getType() == DataChangeEvent.Type.DELETED) {
+                    studentTableModel.remove(key);
+                    allocationTableModel.removeIf(a -> a.getStudent().getStudentId().equals(key));
+                } else if (!studentSearchField.getText().trim().isEmpty()) {
+                    // Matches are ranked by the search index, so re-run the query.
+                    studentSearchStale = true;
+                } else {
+                    studentTableModel.upsert((Student) event.getRow());
+                }
+                studentOptionsStale = true;
+                scheduleChangeRefresh();
+                break;
+            case ROOM:
+                Room room = (Room) event.getRow();
+                if (event.getType() == DataChangeEvent.Type.DELETED || (showOnlyAvailable && !room.isAvailable())) {
+                    roomTableModel.remove(key);
+                } else {
+                    roomTableModel.upsert(room);
+                }
+                roomOptionsStale = true;
+                scheduleChangeRefresh();
+                break;
+            case ALLOCATION:
+                Allocation allocation = (Allocation) event.getRow();
+                if (event.getType() == DataChangeEvent.Type.DELETED ||
+                    (showOnlyActive && !allocation.getStatus().equals("Active"))) {
+                    allocationTableModel.remove(key);
+                } else {
+                    allocationTableModel.upsert(allocation);
+                }
+                break;
+        }
+    }
+    
+    private void scheduleChangeRefresh() {
+        if (!changeRefresh.isRunning()) {
+            changeRefresh.start();
+        }
+    }
+    
+    private void flushChangeRefresh() {
+        if (studentSearchStale && !studentSearchField.getText().trim().isEmpty()) {
+            refreshStudentTable();
+        }
+        if (studentOptionsStale) {
+            studentTypeAhead.refresh();
+        }
+        if (roomOptionsStale) {
+            roomTypeAhead.refresh();
+        }
+        studentSearchStale = studentOptionsStale = roomOptionsStale = false;
+    }
+    
+    private void exportData(JButton exportButton) {
+        JComboBox<DataExporter.Dataset> datasetCombo = new JComboBox<>(DataExporter.Dataset.values());
+        datasetCombo.setSelectedItem(DataExporter.Dataset.ALLOCATIONS);
+        JComboBox<DataExporter.Format> formatCombo = new JComboBox<>(DataExporter.Format.values());
+        JCheckBox gzipBox = new JCheckBox("Compress (gzip)");
+        JPanel options = new JPanel(new GridLayout(0, 1, 5, 5));
+        options.add(new JLabel("Data:"));
+        options.add(datasetCombo);
+        options.add(new JLabel("Format:"));
+        options.add(formatCombo);
+        options.add(gzipBox);
+        if (JOptionPane.showConfirmDialog(this, options, "Export Data", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+        
+        DataExporter.Dataset dataset = (DataExporter.Dataset) datasetCombo.getSelectedItem();
+        DataExporter.Format format = (DataExporter.Format) formatCombo.getSelectedItem();
+        boolean gzip = gzipBox.isSelected();
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File(DataExporter.defaultFileName(dataset, format, gzip)));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        java.nio.file.Path target = chooser.getSelectedFile().toPath();
+        
+        exportButton.setText("Cancel Export");
+        exportProgress.setVisible(true);
+        exportProgress.setIndeterminate(true);
+        exportProgress.setString("Starting...");
+        exportWorker = new SwingWorker<Long, Long>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                return new DataExporter(hostelManager).export(dataset, format, target, gzip,
+                    this::publish, this::isCancelled);
+            }
+            
+            @Override
+            protected void process(List<Long> chunks) {
+                exportProgress.setString(String.format("%,d rows", chunks.get(chunks.size() - 1)));
+            }
+            
+            @Override
+            protected void done() {
+                exportButton.setText("Export Data");
+                exportProgress.setIndeterminate(false);
+                exportProgress.setVisible(false);
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    JOptionPane.showMessageDialog(HostelManagementGUI.this,
+                        String.format("Exported %,d rows to%n%s", get(), target),
+                        "Success", JOptionPane.INFORMATION_MESSAGE);
+                } catch (java.util.concurrent.ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    if (!(cause instanceof java.util.concurrent.CancellationException)) {
+                        System.err.println("Error exporting data: " + cause.getMessage());
+                        JOptionPane.showMessageDialog(HostelManagementGUI.this,
+                            "Export failed: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        exportWorker.execute();
     }
     
 
@@ -1,19 +1,168 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.time.LocalDate;
+import java.util.function.Consumer;
 
 class HostelManager {
     private MySQLDatabaseManager dbManager;
+    private AllocationIdGenerator allocationIds;
+    private final RoomAvailabilityIndex availability = new RoomAvailabilityIndex();
+    private volatile boolean availabilityLoaded = false;
+    private final StudentSearchIndex searchIndex = new StudentSearchIndex();
+    private volatile boolean searchIndexLoaded = false;
+    private final List<DataChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final ChangeLogPoller changeLogPoller;
+    private final AllocationWaitlist waitlist;
     
     public HostelManager() {
         this.dbManager = new MySQLDatabaseManager();
+        if (!dbManager.isConnected()) {
+            throw new IllegalStateException("Database unavailable or schema migration failed");
+        }
+        this.allocationIds = new AllocationIdGenerator(dbManager, DatabaseConfig.ID_BLOCK_SIZE);
+        this.changeLogPoller = new ChangeLogPoller(dbManager, this::applyRemoteChanges);
+        this.waitlist = new AllocationWaitlist(new AllocationWaitlist.Assigner() {
+            @Override
+            public List<Room> freeRooms(String roomType) {
+                return findAvailableRooms(1, null, roomType);
+            }
+            
+            @Override
+            public AllocationWaitlist.Assignment assign(WaitlistEntry entry, String roomNumber) {
+                return allocateFromWaitlist(entry, roomNumber);
+            }
+        });
+        changeLogPoller.start();
+        waitlist.load(dbManager.getWaitingEntries());
+    }
+    
+    public void addDataChangeListener(DataChangeListener listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeDataChangeListener(DataChangeListener listener) {
+        listeners.remove(listener);
+    }
+    
+    // Bumped on every committed change made through this manager; used for HTTP ETags.
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+    
+    private void fire(DataChangeEvent.Entity entity, DataChangeEvent.Type type, String key, Object row) {
+        dataVersion.incrementAndGet();
+        DataChangeEvent event = new DataChangeEvent(entity, type, key, row);
+        for (DataChangeListener listener : listeners) {
+            try {
+                listener.dataChanged(event);
+            } catch (RuntimeException e) {
+                System.err.println("Error notifying change listener: " + e.getMessage());
+            }
+        }
+    }
+    
+    private void fireRoomUpdated(String roomNumber, int occupiedDelta) {
+        Room room = dbManager.getRoomByNumber(roomNumber);
+        reindexRoom(roomNumber, room, occupiedDelta);
+        if (room != null) {
+            fire(DataChangeEvent.Entity.ROOM, DataChangeEvent.Type.UPDATED, roomNumber, room);
+        }
+    }
+    
+    // Re-indexes a room from its committed row, so the index also carries the new version;
+    // falls back to applying the occupancy delta when the row could not be read.
+    private void reindexRoom(String roomNumber, Room room, int occupiedDelta) {
+        if (room == null) {
+            availability.adjustOccupied(roomNumber, occupiedDelta);
+        } else if (availabilityLoaded) {
+            availability.put(room);
+        }
     }
     
     public boolean addStudent(Student student) {
-        return dbManager.addStudent(student);
+        if (!dbManager.addStudent(student)) {
+            return false;
+        }
+        if (searchIndexLoaded) {
+            searchIndex.put(student);
+        }
+        fire(DataChangeEvent.Entity.STUDENT, DataChangeEvent.Type.INSERTED, student.getStudentId(), student);
+        return true;
+    }
+    
+    public BulkLoadResult addStudents(Collection<Student> students) {
+        return addStudents(students, DatabaseConfig.BULK_CHUNK_SIZE);
+    }
+    
+    public BulkLoadResult addStudents(Collection<Student> students, int chunkSize) {
+        BulkLoadResult result = dbManager.addStudents(students, chunkSize);
+        Set<String> inserted = result.keysWith(BulkLoadResult.Outcome.INSERTED);
+        for (Student student : students) {
+            if (student != null && inserted.contains(student.getStudentId())) {
+                if (searchIndexLoaded) {
+                    searchIndex.put(student);
+                }
+                fire(DataChangeEvent.Entity.STUDENT, DataChangeEvent.Type.INSERTED, student.getStudentId(), student);
+            }
+        }
+        return result;
+    }
+    
+    // Applies the edit only if the student is still at student.getVersion(); CONFLICT means
+    // someone else saved first and the caller should reload before trying again.
+    public UpdateOutcome updateStudent(Student student) {
+        UpdateOutcome outcome = dbManager.updateStudent(student);
+        if (outcome == UpdateOutcome.UPDATED) {
+            studentUpdated(student);
+        }
+        return outcome;
     }
     
-    public boolean updateStudent(Student student) {
-        return dbManager.updateStudent(student);
+    private void studentUpdated(Student student) {
+        if (searchIndexLoaded) {
+            searchIndex.put(student);
+        }
+        fire(DataChangeEvent.Entity.STUDENT, DataChangeEvent.Type.UPDATED, student.getStudentId(), student);
+    }
+    
+    // Ranked substring match on ID, name, email and phone from the in-memory search index.
+    public List<Student> searchStudents(String query, int limit) {
+        ensureSearchIndexLoaded();
+        return searchIndex.search(query, limit);
+    }
+    
+    public List<Student> findStudentsByPrefix(String prefix, int limit) {
+        return dbManager.findStudentsByPrefix(prefix, limit);
+    }
+    
+    public List<Room> findAvailableRoomsByPrefix(String prefix, int limit) {
+        return dbManager.findAvailableRoomsByPrefix(prefix, limit);
+    }
+    
+    public void reloadSearchIndex() {
+        synchronized (searchIndex) {
+            searchIndex.clear();
+            searchIndexLoaded = dbManager.forEachStudent(searchIndex::put);
+        }
+    }
+    
+    private void ensureSearchIndexLoaded() {
+        if (!searchIndexLoaded) {
+            synchronized (searchIndex) {
+                if (!searchIndexLoaded) {
+                    reloadSearchIndex();
+                }
+            }
+        }
     }
     
     public Student findStudentById(String studentId) {
@@ -21,11 +170,70 @@ class HostelManager {
     }
     
     public boolean removeStudent(String studentId) {
-        return dbManager.deleteStudent(studentId);
+        Allocation active = dbManager.getActiveAllocationByStudent(studentId);
+        boolean removed = dbManager.deleteStudent(studentId);
+        if (!removed) {
+            return false;
+        }
+        searchIndex.remove(studentId);
+        waitlist.removeStudent(studentId);
+        // Listeners drop the student's allocations along with the student.
+        fire(DataChangeEvent.Entity.STUDENT, DataChangeEvent.Type.DELETED, studentId, null);
+        if (active != null) {
+            fireRoomUpdated(active.getRoom().getRoomNumber(), -1);
+            waitlist.bedsFreed(active.getRoom().getRoomType());
+        }
+        return true;
     }
     
     public boolean addRoom(Room room) {
-        return dbManager.addRoom(room);
+        if (!dbManager.addRoom(room)) {
+            return false;
+        }
+        if (availabilityLoaded) {
+            availability.put(room);
+        }
+        fire(DataChangeEvent.Entity.ROOM, DataChangeEvent.Type.INSERTED, room.getRoomNumber(), room);
+        return true;
+    }
+    
+    // Manual occupancy correction, applied only if the room is still at expectedVersion.
+    public UpdateOutcome updateRoomOccupancy(String roomNumber, int occupied, long expectedVersion) {
+        UpdateOutcome outcome = dbManager.updateRoomOccupancy(roomNumber, occupied, expectedVersion);
+        if (outcome == UpdateOutcome.UPDATED) {
+            roomUpdated(roomNumber);
+        }
+        return outcome;
+    }
+    
+    private void roomUpdated(String roomNumber) {
+        Room room = dbManager.getRoomByNumber(roomNumber);
+        if (room == null) {
+            return;
+        }
+        if (availabilityLoaded) {
+            availability.put(room);
+        }
+        fire(DataChangeEvent.Entity.ROOM, DataChangeEvent.Type.UPDATED, roomNumber, room);
+        waitlist.bedsFreed(room.getRoomType());
+    }
+    
+    public BulkLoadResult addRooms(Collection<Room> rooms) {
+        return addRooms(rooms, DatabaseConfig.BULK_CHUNK_SIZE);
+    }
+    
+    public BulkLoadResult addRooms(Collection<Room> rooms, int chunkSize) {
+        BulkLoadResult result = dbManager.addRooms(rooms, chunkSize);
+        Set<String> inserted = result.keysWith(BulkLoadResult.Outcome.INSERTED);
+        for (Room room : rooms) {
+            if (room != null && inserted.contains(room.getRoomNumber())) {
+                if (availabilityLoaded) {
+                    availability.put(room);
+                }
+                fire(DataChangeEvent.Entity.ROOM, DataChangeEvent.Type.INSERTED, room.getRoomNumber(), room);
+            }
+        }
+        return result;
     }
     
     public Room findRoomByNumber(String roomNumber) {
@@ -37,7 +245,35 @@ class HostelManager {
     }
     
     public List<Room> getAvailableRooms() {
-        return dbManager.getAvailableRooms();
+        return findAvailableRooms(1, null, null);
+    }
+    
+    // Answered from the in-memory availability index; floor and roomType may be null.
+    public List<Room> findAvailableRooms(int minFreeBeds, String floor, String roomType) {
+        ensureAvailabilityLoaded();
+        return availability.findRooms(minFreeBeds, floor, roomType);
+    }
+    
+    public int countAvailableRooms(int minFreeBeds, String floor, String roomType) {
+        ensureAvailabilityLoaded();
+        return availability.countRooms(minFreeBeds, floor, roomType);
+    }
+    
+    public void reloadAvailabilityIndex() {
+        synchronized (availability) {
+            availability.clear();
+            availabilityLoaded = dbManager.forEachRoom(availability::put);
+        }
+    }
+    
+    private void ensureAvailabilityLoaded() {
+        if (!availabilityLoaded) {
+            synchronized (availability) {
+                if (!availabilityLoaded) {
+                    reloadAvailabilityIndex();
+                }
+            }
+        }
     }
     
     public List<Student> getAllStudents() {
@@ -48,25 +284,160 @@ class HostelManager {
         return dbManager.getAllAllocations();
     }
     
+    public Page<Student> getStudentsPage(String afterStudentId, int limit) {
+        return dbManager.getStudentsPage(afterStudentId, limit);
+    }
+    
+    public Page<Room> getRoomsPage(String afterRoomNumber, int limit) {
+        return dbManager.getRoomsPage(afterRoomNumber, limit);
+    }
+    
+    public Page<Allocation> getAllocationsPage(String afterAllocationId, int limit) {
+        return dbManager.getAllocationsPage(afterAllocationId, limit);
+    }
+    
+    public boolean forEachStudent(Consumer<? super Student> consumer) {
+        return dbManager.forEachStudent(consumer);
+    }
+    
+    public boolean forEachRoom(Consumer<? super Room> consumer) {
+        return dbManager.forEachRoom(consumer);
+    }
+    
+    public boolean forEachAllocation(Consumer<? super Allocation> consumer) {
+        return dbManager.forEachAllocation(consumer);
+    }
+    
     public boolean allocateRoom(String studentId, String roomNumber) {
-        Student student = dbManager.getStudentById(studentId);
-        Room room = dbManager.getRoomByNumber(roomNumber);
-        
-        if (student == null || room == null || !room.isAvailable()) {
+        String allocationId;
+        try {
+            allocationId = allocationIds.nextId();
+        } catch (SQLException e) {
+            System.err.println("Error generating allocation ID: " + e.getMessage());
             return false;
         }
         
-        if (dbManager.getActiveAllocationByStudent(studentId) != null) {
+        LocalDate today = LocalDate.now();
+        if (!dbManager.allocateBed(allocationId, studentId, roomNumber, today)) {
             return false;
         }
+        Student student = dbManager.getStudentById(studentId);
+        Room room = dbManager.getRoomByNumber(roomNumber);
+        reindexRoom(roomNumber, room, 1);
+        if (student != null && room != null) {
+            fire(DataChangeEvent.Entity.ALLOCATION, DataChangeEvent.Type.INSERTED, allocationId,
+                new Allocation(allocationId, student, room, today));
+            fire(DataChangeEvent.Entity.ROOM, DataChangeEvent.Type.UPDATED, roomNumber, room);
+        }
+        return true;
+    }
+    
+    public List<Student> getUnallocatedStudents() {
+        return dbManager.getUnallocatedStudents();
+    }
+    
+    public Set<String> findActivelyAllocated(Collection<String> studentIds) {
+        return dbManager.findActivelyAllocated(studentIds);
+    }
+    
+    // Commits placements planned by BulkAllocator. Each gets an allocation ID and comes back
+    // ALLOCATED, ALREADY_ALLOCATED or FAILED; listeners see one event per allocation and room.
+    public List<BulkAllocationResult.Placement> allocateBeds(List<BulkAllocationResult.Placement> planned) {
+        List<String> ids;
+        try {
+            ids = allocationIds.nextIds(planned.size());
+        } catch (SQLException e) {
+            System.err.println("Error generating allocation IDs: " + e.getMessage());
+            List<BulkAllocationResult.Placement> failed = new ArrayList<>(planned.size());
+            for (BulkAllocationResult.Placement placement : planned) {
+                failed.add(placement.withOutcome(BulkAllocationResult.Outcome.FAILED, "No allocation ID: " + e.getMessage()));
+            }
+            return failed;
+        }
+        List<BulkAllocationResult.Placement> withIds = new ArrayList<>(planned.size());
+        for (int i = 0; i < planned.size(); i++) {
+            withIds.add(planned.get(i).withAllocationId(ids.get(i)));
+        }
         
-        int allocationNum = dbManager.getNextAllocationNumber();
-        String allocationId = "ALLOC" + String.format("%04d", allocationNum);
-        
-        room.allocateBed();
-        Allocation allocation = new Allocation(allocationId, student, room, LocalDate.now());
-        
-        return dbManager.addAllocation(allocation);
+        LocalDate today = LocalDate.now();
+        List<BulkAllocationResult.Placement> results = dbManager.allocateBeds(withIds, today,
+            DatabaseConfig.BULK_ALLOCATION_CHUNK_SIZE);
+        Map<String, Integer> bedsByRoom = new HashMap<>();
+        for (BulkAllocationResult.Placement placement : results) {
+            if (placement.getOutcome() == BulkAllocationResult.Outcome.ALLOCATED) {
+                bedsByRoom.merge(placement.getRoomNumber(), 1, Integer::sum);
+            }
+        }
+        if (bedsByRoom.isEmpty()) {
+            return results;
+        }
+        Map<String, Room> rooms = dbManager.getRoomsByNumber(bedsByRoom.keySet());
+        for (Map.Entry<String, Integer> entry : bedsByRoom.entrySet()) {
+            reindexRoom(entry.getKey(), rooms.get(entry.getKey()), entry.getValue());
+        }
+        for (BulkAllocationResult.Placement placement : results) {
+            Room room = rooms.get(placement.getRoomNumber());
+            if (placement.getOutcome() == BulkAllocationResult.Outcome.ALLOCATED && room != null) {
+                fire(DataChangeEvent.Entity.ALLOCATION, DataChangeEvent.Type.INSERTED, placement.getAllocationId(),
+                    new Allocation(placement.getAllocationId(), placement.getStudent(), room, today));
+            }
+        }
+        for (Room room : rooms.values()) {
+            fire(DataChangeEvent.Entity.ROOM, DataChangeEvent.Type.UPDATED, room.getRoomNumber(), room);
+        }
+        return results;
+    }
+    
+    // Queues the student for the next free bed in a room of roomType; higher priority first.
+    // Returns null if the entry could not be stored, e.g. the student is already waiting.
+    public WaitlistEntry joinWaitlist(String studentId, String roomType, int priority) {
+        WaitlistEntry entry = dbManager.addToWaitlist(studentId, roomType, priority);
+        if (entry == null) {
+            return null;
+        }
+        waitlist.add(entry);
+        fire(DataChangeEvent.Entity.WAITLIST, DataChangeEvent.Type.INSERTED, Long.toString(entry.getWaitlistId()), entry);
+        // A bed of this type may already be free.
+        waitlist.bedsFreed(roomType);
+        return entry;
+    }
+    
+    public boolean cancelWaitlistEntry(long waitlistId) {
+        if (!dbManager.cancelWaitlistEntry(waitlistId)) {
+            return false;
+        }
+        waitlist.remove(waitlistId);
+        fire(DataChangeEvent.Entity.WAITLIST, DataChangeEvent.Type.UPDATED, Long.toString(waitlistId), null);
+        return true;
+    }
+    
+    public List<WaitlistEntry> getWaitlist() {
+        return waitlist.snapshot();
+    }
+    
+    private AllocationWaitlist.Assignment allocateFromWaitlist(WaitlistEntry entry, String roomNumber) {
+        String allocationId;
+        try {
+            allocationId = allocationIds.nextId();
+        } catch (SQLException e) {
+            System.err.println("Error generating allocation ID: " + e.getMessage());
+            return AllocationWaitlist.Assignment.FAILED;
+        }
+        LocalDate today = LocalDate.now();
+        AllocationWaitlist.Assignment result = dbManager.allocateFromWaitlist(entry, allocationId, roomNumber, today);
+        if (result != AllocationWaitlist.Assignment.ALLOCATED) {
+            return result;
+        }
+        Student student = dbManager.getStudentById(entry.getStudentId());
+        Room room = dbManager.getRoomByNumber(roomNumber);
+        reindexRoom(roomNumber, room, 1);
+        if (student != null && room != null) {
+            fire(DataChangeEvent.Entity.ALLOCATION, DataChangeEvent.Type.INSERTED, allocationId,
+                new Allocation(allocationId, student, room, today));
+            fire(DataChangeEvent.Entity.ROOM, DataChangeEvent.Type.UPDATED, roomNumber, room);
+        }
+        fire(DataChangeEvent.Entity.WAITLIST, DataChangeEvent.Type.UPDATED, Long.toString(entry.getWaitlistId()), null);
+        return result;
     }
     
     public boolean deallocateRoom(String studentId) {
@@ -74,15 +445,116 @@ class HostelManager {
         if (allocation == null) {
             return false;
         }
-        
-        Room room = allocation.getRoom();
-        room.deallocateBed();
-        
-        return dbManager.updateRoomOccupancy(room.getRoomNumber(), room.getOccupied()) &&
-               dbManager.updateAllocationCheckout(allocation.getAllocationId(), LocalDate.now());
+        LocalDate today = LocalDate.now();
+        if (!dbManager.checkoutAllocation(allocation, today)) {
+            return false;
+        }
+        String roomNumber = allocation.getRoom().getRoomNumber();
+        Room room = dbManager.getRoomByNumber(roomNumber);
+        reindexRoom(roomNumber, room, -1);
+        if (room != null) {
+            allocation.setRoom(room);
+        }
+        allocation.setCheckoutDate(today);
+        allocation.setStatus("Checkout");
+        fire(DataChangeEvent.Entity.ALLOCATION, DataChangeEvent.Type.UPDATED, allocation.getAllocationId(), allocation);
+        if (room != null) {
+            fire(DataChangeEvent.Entity.ROOM, DataChangeEvent.Type.UPDATED, roomNumber, room);
+        }
+        waitlist.bedsFreed(allocation.getRoom().getRoomType());
+        return true;
+    }
+    
+    // Applies changes committed by other instances, as read from change_log by the poller.
+    // Repeated changes to one row within a batch collapse into a single reload of that row.
+    private void applyRemoteChanges(List<ChangeLogEntry> entries) {
+        Map<String, ChangeLogEntry> latest = new LinkedHashMap<>();
+        for (ChangeLogEntry entry : entries) {
+            String id = entry.getEntity() + "|" + entry.getKey();
+            ChangeLogEntry previous = latest.remove(id);
+            // An insert followed by updates is still an insert for views that never saw the row.
+            boolean inserted = previous != null && previous.getType() == DataChangeEvent.Type.INSERTED &&
+                               entry.getType() != DataChangeEvent.Type.DELETED;
+            latest.put(id, inserted ? new ChangeLogEntry(entry.getSeq(), entry.getEntity(),
+                DataChangeEvent.Type.INSERTED, entry.getKey(), entry.getInstanceId()) : entry);
+        }
+        for (ChangeLogEntry entry : latest.values()) {
+            String key = entry.getKey();
+            dbManager.invalidateCached(entry.getEntity(), key);
+            switch (entry.getEntity()) {
+                case STUDENT: {
+                    Student student = entry.getType() == DataChangeEvent.Type.DELETED ? null : dbManager.getStudentById(key);
+                    if (student == null) {
+                        searchIndex.remove(key);
+                        fire(DataChangeEvent.Entity.STUDENT, DataChangeEvent.Type.DELETED, key, null);
+                    } else {
+                        if (searchIndexLoaded) {
+                            searchIndex.put(student);
+                        }
+                        fire(DataChangeEvent.Entity.STUDENT, entry.getType(), key, student);
+                    }
+                    break;
+                }
+                case ROOM: {
+                    Room room = dbManager.getRoomByNumber(key);
+                    if (room != null) {
+                        if (availabilityLoaded) {
+                            availability.put(room);
+                        }
+                        fire(DataChangeEvent.Entity.ROOM, entry.getType(), key, room);
+                        if (room.isAvailable()) {
+                            waitlist.bedsFreed(room.getRoomType());
+                        }
+                    }
+                    break;
+                }
+                case WAITLIST: {
+                    long waitlistId = Long.parseLong(key);
+                    WaitlistEntry current = dbManager.getWaitlistEntry(waitlistId);
+                    waitlist.refresh(waitlistId, current);
+                    fire(DataChangeEvent.Entity.WAITLIST, entry.getType(), key, current);
+                    break;
+                }
+                case ALLOCATION: {
+                    Allocation allocation = dbManager.getAllocationById(key);
+                    if (allocation == null) {
+                        fire(DataChangeEvent.Entity.ALLOCATION, DataChangeEvent.Type.DELETED, key, null);
+                    } else {
+                        fire(DataChangeEvent.Entity.ALLOCATION, entry.getType(), key, allocation);
+                    }
+                    break;
+                }
+            }
+        }
+    }
+    
+    public HostelReport generateReport() {
+        return dbManager.generateReport();
+    }
+    
+    public int rebuildOccupancySummary() {
+        return dbManager.rebuildOccupancySummary();
+    }
+    
+    public ConnectionPool.Stats getConnectionPoolStats() {
+        return dbManager.getPoolStats();
+    }
+    
+    public StatementCache.Counters getStatementCacheStats() {
+        return dbManager.getStatementCacheStats();
+    }
+    
+    public EntityCache.Stats getStudentCacheStats() {
+        return dbManager.getStudentCacheStats();
+    }
+    
+    public EntityCache.Stats getRoomCacheStats() {
+        return dbManager.getRoomCacheStats();
     }
     
     public void close() {
+        changeLogPoller.stop();
+        waitlist.stop();
         dbManager.closeConnection();
     }
 }
@@ -0,0 +1,96 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Aggregates computed by MySQLDatabaseManager.generateReport from occupancy_summary and a
+// few GROUP BY queries; nothing here is derived from full entity lists.
+class HostelReport {
+    static class Breakdown {
+        private final String label;
+        private final int count;
+        private final int capacity;
+        private final int occupied;
+        private final int activeAllocations;
+        private final double revenue;
+
+        Breakdown(String label, int count, int capacity, int occupied, int activeAllocations, double revenue) {
+            this.label = label;
+            this.count = count;
+            this.capacity = capacity;
+            this.occupied = occupied;
+            this.activeAllocations = activeAllocations;
+            this.revenue = revenue;
+        }
+
+        public String getLabel() { return label; }
+        // Rooms for floor and room type breakdowns, students for departments.
+        public int getCount() { return count; }
+        public int getCapacity() { return capacity; }
+        public int getOccupied() { return occupied; }
+        public int getActiveAllocations() { return activeAllocations; }
+        public double getRevenue() { return revenue; }
+
+        public double getOccupancyPercent() {
+            return capacity == 0 ? 0 : occupied * 100.0 / capacity;
+        }
+    }
+
+    static class RoomOccupancy {
+        private final String roomNumber;
+        private final int capacity;
+        private final int occupied;
+
+        RoomOccupancy(String roomNumber, int capacity, int occupied) {
+            this.roomNumber = roomNumber;
+            this.capacity = capacity;
+            this.occupied = occupied;
+        }
+
+        public String getRoomNumber() { return roomNumber; }
+        public int getCapacity() { return capacity; }
+        public int getOccupied() { return occupied; }
+
+        public double getOccupancyPercent() {
+            return capacity == 0 ? 0 : occupied * 100.0 / capacity;
+        }
+    }
+
+    private int totalStudents;
+    private int totalRooms;
+    private int availableRooms;
+    private int activeAllocations;
+    private double monthlyRevenue;
+    private final List<Breakdown> byFloor = new ArrayList<>();
+    private final List<Breakdown> byRoomType = new ArrayList<>();
+    private final List<Breakdown> byDepartment = new ArrayList<>();
+    private final List<RoomOccupancy> rooms = new ArrayList<>();
+    private long elapsedMillis;
+
+    void setTotals(int totalStudents, int totalRooms, int availableRooms, int activeAllocations, double monthlyRevenue) {
+        this.totalStudents = totalStudents;
+        this.totalRooms = totalRooms;
+        this.availableRooms = availableRooms;
+        this.activeAllocations = activeAllocations;
+        this.monthlyRevenue = monthlyRevenue;
+    }
+
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    List<Breakdown> floors() { return byFloor; }
+    List<Breakdown> roomTypes() { return byRoomType; }
+    List<Breakdown> departments() { return byDepartment; }
+    List<RoomOccupancy> roomList() { return rooms; }
+
+    public int getTotalStudents() { return totalStudents; }
+    public int getTotalRooms() { return totalRooms; }
+    public int getAvailableRooms() { return availableRooms; }
+    public int getActiveAllocations() { return activeAllocations; }
+    public double getMonthlyRevenue() { return monthlyRevenue; }
+    public List<Breakdown> getByFloor() { return Collections.unmodifiableList(byFloor); }
+    public List<Breakdown> getByRoomType() { return Collections.unmodifiableList(byRoomType); }
+    public List<Breakdown> getByDepartment() { return Collections.unmodifiableList(byDepartment); }
+    public List<RoomOccupancy> getRooms() { return Collections.unmodifiableList(rooms); }
+    public long getElapsedMillis() { return elapsedMillis; }
+}
@@ -0,0 +1,169 @@
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Read-only table model that renders cells straight from a list of domain objects. Nothing
+// is copied per row: replacing the rows fires a single data-changed event, and single-row
+// changes are patched in place by key with row-level events.
+class ListTableModel<T> extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    private final Function<? super T, String> keyOf;
+    private final Comparator<? super T> order;
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<Function<? super T, ?>> extractors = new ArrayList<>();
+    private List<T> rows = new ArrayList<>();
+    // Holds every key; positions at or after validBelow may be stale after an insert or removal
+    // above them and are renumbered only when one of them is looked up.
+    private Map<String, Integer> rowByKey;
+    private int validBelow;
+
+    // order is the order the rows arrive in, used to place inserted rows; may be null to append.
+    public ListTableModel(Function<? super T, String> keyOf, Comparator<? super T> order) {
+        this.keyOf = keyOf;
+        this.order = order;
+    }
+
+    public ListTableModel<T> addColumn(String name, Function<? super T, ?> extractor) {
+        columnNames.add(name);
+        extractors.add(extractor);
+        return this;
+    }
+
+    // Takes ownership of the list; callers must not modify it afterwards.
+    public void setRows(List<T> rows) {
+        this.rows = rows instanceof ArrayList ? rows : new ArrayList<>(rows != null ? rows : Collections.<T>emptyList());
+        rowByKey = null;
+        fireTableDataChanged();
+    }
+
+    // Replaces the row with the same key, or inserts it at its sorted position.
+    // An insert never renumbers the index, so a run of inserts (e.g. new allocations at the
+    // top of a newest-first table) costs no more than the list insert itself.
+    public void upsert(T row) {
+        String key = keyOf.apply(row);
+        int index = position(key);
+        if (index >= 0) {
+            rows.set(index, row);
+            fireTableRowsUpdated(index, index);
+            return;
+        }
+        int position = insertionPoint(row);
+        rows.add(position, row);
+        rowByKey.put(key, position);
+        validBelow = validBelow == position && position == rows.size() - 1 ? position + 1 : Math.min(validBelow, position);
+        fireTableRowsInserted(position, position);
+    }
+
+    public boolean remove(String key) {
+        int index = position(key);
+        if (index < 0) {
+            return false;
+        }
+        rows.remove(index);
+        rowByKey.remove(key);
+        validBelow = Math.min(validBelow, index);
+        fireTableRowsDeleted(index, index);
+        return true;
+    }
+
+    public int removeIf(Predicate<? super T> filter) {
+        int removed = 0;
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            T row = rows.get(i);
+            if (filter.test(row)) {
+                rows.remove(i);
+                if (rowByKey != null) {
+                    rowByKey.remove(keyOf.apply(row));
+                    validBelow = Math.min(validBelow, i);
+                }
+                fireTableRowsDeleted(i, i);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public T getRow(int row) {
+        return rows.get(row);
+    }
+
+    public T find(String key) {
+        int index = position(key);
+        return index >= 0 ? rows.get(index) : null;
+    }
+
+    public List<T> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames.get(column);
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return extractors.get(column).apply(rows.get(row));
+    }
+
+    // Current row of key, or -1. The key set is always complete; stale positions are
+    // renumbered only when one of them is needed.
+    private int position(String key) {
+        if (rowByKey == null) {
+            rowByKey = new HashMap<>(rows.size() * 2);
+            validBelow = 0;
+            renumber();
+        }
+        Integer index = rowByKey.get(key);
+        if (index == null) {
+            return -1;
+        }
+        if (index >= validBelow) {
+            renumber();
+            index = rowByKey.get(key);
+        }
+        return index;
+    }
+
+    private void renumber() {
+        for (int i = validBelow; i < rows.size(); i++) {
+            rowByKey.put(keyOf.apply(rows.get(i)), i);
+        }
+        validBelow = rows.size();
+    }
+
+    // First position whose row sorts after the new one, found by binary search.
+    private int insertionPoint(T row) {
+        if (order == null) {
+            return rows.size();
+        }
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (order.compare(rows.get(mid), row) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -1,76 +1,101 @@
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 class MySQLDatabaseManager {
-    private Connection connection;
+    private static final int ER_DUP_ENTRY = 1062;
+    
+    private static final String ALLOCATION_SELECT =
+            "SELECT a.allocation_id, a.student_id, a.room_number, a.allocation_date, a.checkout_date, a.status, " +
+            "a.version AS allocation_version, " +
+            "s.name, s.email, s.phone, s.department, s.version AS student_version, " +
+            "r.room_type, r.capacity, r.occupied, r.rent_per_bed, r.floor, r.version AS room_version " +
+            "FROM allocations a " +
+            "JOIN students s ON s.student_id = a.student_id " +
+            "JOIN rooms r ON r.room_number = a.room_number";
+    
+    private static final String SUMMARY_COLUMNS =
+        "floor, room_type, room_count, total_beds, occupied_beds, available_rooms, active_allocations, monthly_revenue";
+    private static final String SUMMARY_AGGREGATE_SELECT =
+        "SELECT COALESCE(r.floor, ''), r.room_type, COUNT(*), SUM(r.capacity), SUM(r.occupied), " +
+        "SUM(r.occupied < r.capacity), COALESCE(SUM(act.active), 0), " +
+        "COALESCE(SUM(act.active * r.rent_per_bed), 0) " +
+        "FROM rooms r LEFT JOIN (SELECT room_number, COUNT(*) AS active FROM allocations " +
+        "WHERE status = 'Active' GROUP BY room_number) act ON act.room_number = r.room_number " +
+        "GROUP BY COALESCE(r.floor, ''), r.room_type";
+    // Must run after rooms.occupied has been changed by the delta (parameters 1 and 2).
+    private static final String SUMMARY_ADJUST =
+        "UPDATE occupancy_summary s JOIN rooms r " +
+        "ON s.floor = COALESCE(r.floor, '') AND s.room_type = r.room_type " +
+        "SET s.occupied_beds = s.occupied_beds + ?, " +
+        "s.available_rooms = s.available_rooms + (r.occupied < r.capacity) - ((r.occupied - ?) < r.capacity), " +
+        "s.active_allocations = s.active_allocations + ?, " +
+        "s.monthly_revenue = s.monthly_revenue + ? * r.rent_per_bed " +
+        "WHERE r.room_number = ?";
+    private static final String CHANGE_LOG_INSERT =
+        "INSERT INTO change_log (entity, entity_key, change_type, instance_id) VALUES (?, ?, ?, ?)";
+    
+    private ConnectionPool pool;
+    // Tags this process's change_log rows so its own poller can skip them.
+    private final String instanceId = UUID.randomUUID().toString();
+    private final EntityCache<String, Student> studentCache = new EntityCache<>(
+        "Student", DatabaseConfig.STUDENT_CACHE_SIZE, DatabaseConfig.ENTITY_CACHE_TTL_MS);
+    private final EntityCache<String, Room> roomCache = new EntityCache<>(
+        "Room", DatabaseConfig.ROOM_CACHE_SIZE, DatabaseConfig.ENTITY_CACHE_TTL_MS);
     
     public MySQLDatabaseManager() {
         try {
             Class.forName(DatabaseConfig.DB_DRIVER);
-            connection = DriverManager.getConnection(
-                DatabaseConfig.DB_URL,
-                DatabaseConfig.DB_USER,
-                DatabaseConfig.DB_PASSWORD
-            );
+            pool = ConnectionPool.fromConfig();
             System.out.println("Database connected successfully!");
-            createTables();
+            if (!migrateSchema()) {
+                // Running against a partially migrated schema would fail later in obscure ways.
+                pool.shutdown();
+                pool = null;
+            }
         } catch (Exception e) {
             System.err.println("Database connection error: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
-    private void createTables() {
-        try (Statement stmt = connection.createStatement()) {
-            String studentsTable = "CREATE TABLE IF NOT EXISTS students (" +
-                    "student_id VARCHAR(20) PRIMARY KEY," +
-                    "name VARCHAR(100) NOT NULL," +
-                    "email VARCHAR(100)," +
-                    "phone VARCHAR(15)," +
-                    "department VARCHAR(50)" +
-                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
-            stmt.execute(studentsTable);
-            
-            String roomsTable = "CREATE TABLE IF NOT EXISTS rooms (" +
-                    "room_number VARCHAR(10) PRIMARY KEY," +
-                    "room_type VARCHAR(20) NOT NULL," +
-                    "capacity INT NOT NULL," +
-                    "occupied INT DEFAULT 0," +
-                    "rent_per_bed DECIMAL(10,2) NOT NULL," +
-                    "floor VARCHAR(20)" +
-                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
-            stmt.execute(roomsTable);
-            
-            String allocationsTable = "CREATE TABLE IF NOT EXISTS allocations (" +
-                    "allocation_id VARCHAR(20) PRIMARY KEY," +
-                    "student_id VARCHAR(20) NOT NULL," +
-                    "room_number VARCHAR(10) NOT NULL," +
-                    "allocation_date DATE NOT NULL," +
-                    "checkout_date DATE," +
-                    "status VARCHAR(20) DEFAULT 'Active'," +
-                    "FOREIGN KEY (student_id) REFERENCES students(student_id)," +
-                    "FOREIGN KEY (room_number) REFERENCES rooms(room_number)" +
-                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
-            stmt.execute(allocationsTable);
-            
-            System.out.println("Tables created successfully!");
+    private boolean migrateSchema() {
+        try (PooledConnection pc = pool.borrow()) {
+            int version = new SchemaMigrator().migrate(pc.getConnection());
+            System.out.println("Database schema is at version " + version);
+            return true;
         } catch (SQLException e) {
-            System.err.println("Error creating tables: " + e.getMessage());
+            System.err.println("Error migrating schema: " + e.getMessage());
+            return false;
         }
     }
     
 
     public boolean addStudent(Student student) {
         String sql = "INSERT INTO students (student_id, name, email, phone, department) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, student.getStudentId());
-            pstmt.setString(2, student.getName());
-            pstmt.setString(3, student.getEmail());
-            pstmt.setString(4, student.getPhone());
-            pstmt.setString(5, student.getDepartment());
+        try (PooledConnection pc = pool.borrow()) {
+            Connection connection = pc.getConnection();
+            connection.setAutoCommit(false);
+            PreparedStatement pstmt = pc.prepare(sql);
+            bindStudent(pstmt, student);
             pstmt.executeUpdate();
+            logChange(pc, DataChangeEvent.Entity.STUDENT, DataChangeEvent.Type.INSERTED, student.getStudentId());
+            connection.commit();
             return true;
         } catch (SQLException e) {
             System.err.println("Error adding student: " + e.getMessage());
@@ -78,38 +103,61 @@ class MySQLDatabaseManager {
         }
     }
     
-    public boolean updateStudent(Student student) {
-        String sql = "UPDATE students SET name = ?, email = ?, phone = ?, department = ? WHERE student_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+    public BulkLoadResult addStudents(Collection<Student> students, int chunkSize) {
+        String sql = "INSERT INTO students (student_id, name, email, phone, department) VALUES (?, ?, ?, ?, ?)";
+        return bulkInsert(students, chunkSize, sql, "SELECT student_id FROM students WHERE student_id IN ",
+            Student::getStudentId, MySQLDatabaseManager::validateStudent, MySQLDatabaseManager::bindStudent,
+            (pc, keys) -> logChanges(pc, DataChangeEvent.Entity.STUDENT, DataChangeEvent.Type.INSERTED, keys));
+    }
+    
+    // Compare-and-set on student.getVersion(); on success the student carries the new version.
+    public UpdateOutcome updateStudent(Student student) {
+        String sql = "UPDATE students SET name = ?, email = ?, phone = ?, department = ?, version = version + 1 " +
+                     "WHERE student_id = ? AND version = ?";
+        try (PooledConnection pc = pool.borrow()) {
+            Connection connection = pc.getConnection();
+            connection.setAutoCommit(false);
+            PreparedStatement pstmt = pc.prepare(sql);
             pstmt.setString(1, student.getName());
             pstmt.setString(2, student.getEmail());
             pstmt.setString(3, student.getPhone());
             pstmt.setString(4, student.getDepartment());
             pstmt.setString(5, student.getStudentId());
-            pstmt.executeUpdate();
-            return true;
+            pstmt.setLong(6, student.getVersion());
+            if (pstmt.executeUpdate() == 0) {
+                return missingOrConflict(pc, "SELECT 1 FROM students WHERE student_id = ?", student.getStudentId());
+            }
+            logChange(pc, DataChangeEvent.Entity.STUDENT, DataChangeEvent.Type.UPDATED, student.getStudentId());
+            connection.commit();
+            student.setVersion(student.getVersion() + 1);
+            return UpdateOutcome.UPDATED;
         } catch (SQLException e) {
             System.err.println("Error updating student: " + e.getMessage());
-            return false;
+            return UpdateOutcome.FAILED;
+        } finally {
+            studentCache.invalidate(student.getStudentId());
         }
     }
     
     public Student getStudentById(String studentId) {
+        try {
+            return studentCache.get(studentId, this::loadStudent);
+        } catch (SQLException e) {
+            System.err.println("Error getting student: " + e.getMessage());
+        }
+        return null;
+    }
+    
+    private Student loadStudent(String studentId) throws SQLException {
         String sql = "SELECT * FROM students WHERE student_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PooledConnection pc = pool.borrow()) {
+            PreparedStatement pstmt = pc.prepare(sql);
             pstmt.setString(1, studentId);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return new Student(
-                    rs.getString("student_id"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("phone"),
-                    rs.getString("department")
-                );
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapStudent(rs);
+                }
             }
-        } catch (SQLException e) {
-            System.err.println("Error getting student: " + e.getMessage());
         }
         return null;
     }
@@ -117,16 +165,10 @@ class MySQLDatabaseManager {
     public List<Student> getAllStudents() {
         List<Student> students = new ArrayList<>();
         String sql = "SELECT * FROM students ORDER BY student_id";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (PooledConnection pc = pool.borrow();
+             ResultSet rs = pc.prepare(sql).executeQuery()) {
             while (rs.next()) {
-                students.add(new Student(
-                    rs.getString("student_id"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("phone"),
-                    rs.getString("department")
-                ));
+                students.add(mapStudent(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error getting students: " + e.getMessage());
@@ -134,53 +176,92 @@ class MySQLDatabaseManager {
         return students;
     }
     
+    // Type-ahead lookup: students whose ID or name starts with the prefix, by ID, at most limit rows.
+    public List<Student> findStudentsByPrefix(String prefix, int limit) {
+        List<Student> students = new ArrayList<>();
+        String sql = "(SELECT * FROM students WHERE student_id LIKE ? ORDER BY student_id LIMIT ?) " +
+                     "UNION (SELECT * FROM students WHERE name LIKE ? ORDER BY name LIMIT ?) " +
+                     "ORDER BY student_id LIMIT ?";
+        try (PooledConnection pc = pool.borrow()) {
+            PreparedStatement pstmt = pc.prepare(sql);
+            String pattern = likePrefix(prefix);
+            pstmt.setString(1, pattern);
+            pstmt.setInt(2, limit);
+            pstmt.setString(3, pattern);
+            pstmt.setInt(4, limit);
+            pstmt.setInt(5, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    students.add(mapStudent(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error searching students: " + e.getMessage());
+        }
+        return students;
+    }
+    
     public boolean deleteStudent(String studentId) {
-        try {
+        List<String> releasedRooms = new ArrayList<>();
+        // Uncommitted work is rolled back by the pool when the connection is released.
+        try (PooledConnection pc = pool.borrow()) {
+            Connection connection = pc.getConnection();
             connection.setAutoCommit(false);
             
-
-            String allocSql = "SELECT * FROM allocations WHERE student_id = ? AND status = 'Active'";
-            try (PreparedStatement pstmt = connection.prepareStatement(allocSql)) {
-                pstmt.setString(1, studentId);
-                ResultSet rs = pstmt.executeQuery();
+            String activeSql = "SELECT a.room_number, r.occupied FROM allocations a " +
+                               "JOIN rooms r ON r.room_number = a.room_number " +
+                               "WHERE a.student_id = ? AND a.status = 'Active' FOR UPDATE";
+            PreparedStatement activeStmt = pc.prepare(activeSql);
+            activeStmt.setString(1, studentId);
+            // Rooms already at 0 stay at 0 below, so their occupied beds must not move either.
+            List<Boolean> bedReleased = new ArrayList<>();
+            try (ResultSet rs = activeStmt.executeQuery()) {
                 while (rs.next()) {
-                    String roomNumber = rs.getString("room_number");
-                    Room room = getRoomByNumber(roomNumber);
-                    if (room != null) {
-                        room.deallocateBed();
-                        updateRoomOccupancy(roomNumber, room.getOccupied());
-                    }
+                    releasedRooms.add(rs.getString("room_number"));
+                    bedReleased.add(rs.getInt("occupied") > 0);
                 }
             }
             
 
-            String deleteAllocSql = "DELETE FROM allocations WHERE student_id = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(deleteAllocSql)) {
-                pstmt.setString(1, studentId);
-                pstmt.executeUpdate();
+            String releaseSql = "UPDATE rooms r JOIN allocations a ON a.room_number = r.room_number " +
+                                "SET r.occupied = GREATEST(r.occupied - 1, 0), r.version = r.version + 1 " +
+                                "WHERE a.student_id = ? AND a.status = 'Active'";
+            PreparedStatement releaseStmt = pc.prepare(releaseSql);
+            releaseStmt.setString(1, studentId);
+            releaseStmt.executeUpdate();
+            for (int i = 0; i < releasedRooms.size(); i++) {
+                adjustOccupancySummary(pc, releasedRooms.get(i), bedReleased.get(i) ? -1 : 0, -1);
             }
             
 
+            String deleteAllocSql = "DELETE FROM allocations WHERE student_id = ?";
+            PreparedStatement deleteAllocStmt = pc.prepare(deleteAllocSql);
+            deleteAllocStmt.setString(1, studentId);
+            deleteAllocStmt.executeUpdate();
+            
+
+            PreparedStatement deleteWaitlistStmt = pc.prepare("DELETE FROM waitlist WHERE student_id = ?");
+            deleteWaitlistStmt.setString(1, studentId);
+            deleteWaitlistStmt.executeUpdate();
+            
             String deleteStudentSql = "DELETE FROM students WHERE student_id = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(deleteStudentSql)) {
-                pstmt.setString(1, studentId);
-                int result = pstmt.executeUpdate();
-                connection.commit();
-                return result > 0;
+            PreparedStatement deleteStudentStmt = pc.prepare(deleteStudentSql);
+            deleteStudentStmt.setString(1, studentId);
+            int result = deleteStudentStmt.executeUpdate();
+            if (result > 0) {
+                // Readers drop a deleted student's allocations, so those are not logged separately.
+                logChange(pc, DataChangeEvent.Entity.STUDENT, DataChangeEvent.Type.DELETED, studentId);
+                logChanges(pc, DataChangeEvent.Entity.ROOM, DataChangeEvent.Type.UPDATED, releasedRooms);
             }
+            connection.commit();
+            return result > 0;
         } catch (SQLException e) {
-            try {
-                connection.rollback();
-            } catch (SQLException ex) {
-                System.err.println("Error rolling back transaction: " + ex.getMessage());
-            }
             System.err.println("Error deleting student: " + e.getMessage());
             return false;
         } finally {
-            try {
-                connection.setAutoCommit(true);
-            } catch (SQLException e) {
-                System.err.println("Error setting autocommit: " + e.getMessage());
+            studentCache.invalidate(studentId);
+            for (String roomNumber : releasedRooms) {
+                roomCache.invalidate(roomNumber);
             }
         }
     }
@@ -188,39 +269,53 @@ class MySQLDatabaseManager {
 
     public boolean addRoom(Room room) {
         String sql = "INSERT INTO rooms (room_number, room_type, capacity, occupied, rent_per_bed, floor) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, room.getRoomNumber());
-            pstmt.setString(2, room.getRoomType());
-            pstmt.setInt(3, room.getCapacity());
-            pstmt.setInt(4, room.getOccupied());
-            pstmt.setDouble(5, room.getRentPerBed());
-            pstmt.setString(6, room.getFloor());
+        try (PooledConnection pc = pool.borrow()) {
+            Connection connection = pc.getConnection();
+            connection.setAutoCommit(false);
+            PreparedStatement pstmt = pc.prepare(sql);
+            bindRoom(pstmt, room);
             pstmt.executeUpdate();
+            addRoomsToSummary(pc, Collections.singleton(room.getRoomNumber()));
+            logChange(pc, DataChangeEvent.Entity.ROOM, DataChangeEvent.Type.INSERTED, room.getRoomNumber());
+            connection.commit();
             return true;
         } catch (SQLException e) {
             System.err.println("Error adding room: " + e.getMessage());
             return false;
+        } finally {
+            roomCache.invalidate(room.getRoomNumber());
         }
     }
     
+    public BulkLoadResult addRooms(Collection<Room> rooms, int chunkSize) {
+        String sql = "INSERT INTO rooms (room_number, room_type, capacity, occupied, rent_per_bed, floor) VALUES (?, ?, ?, ?, ?, ?)";
+        return bulkInsert(rooms, chunkSize, sql, "SELECT room_number FROM rooms WHERE room_number IN ",
+            Room::getRoomNumber, MySQLDatabaseManager::validateRoom, MySQLDatabaseManager::bindRoom,
+            (pc, keys) -> {
+                addRoomsToSummary(pc, keys);
+                logChanges(pc, DataChangeEvent.Entity.ROOM, DataChangeEvent.Type.INSERTED, keys);
+            });
+    }
+    
     public Room getRoomByNumber(String roomNumber) {
+        try {
+            return roomCache.get(roomNumber, this::loadRoom);
+        } catch (SQLException e) {
+            System.err.println("Error getting room: " + e.getMessage());
+        }
+        return null;
+    }
+    
+    private Room loadRoom(String roomNumber) throws SQLException {
         String sql = "SELECT * FROM rooms WHERE room_number = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PooledConnection pc = pool.borrow()) {
+            PreparedStatement pstmt = pc.prepare(sql);
             pstmt.setString(1, roomNumber);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                Room room = new Room(
-                    rs.getString("room_number"),
-                    rs.getString("room_type"),
-                    rs.getInt("capacity"),
-                    rs.getDouble("rent_per_bed"),
-                    rs.getString("floor")
-                );
-                room.setOccupied(rs.getInt("occupied"));
-                return room;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapRoom(rs);
+                }
             }
-        } catch (SQLException e) {
-            System.err.println("Error getting room: " + e.getMessage());
         }
         return null;
     }
@@ -228,18 +323,10 @@ class MySQLDatabaseManager {
     public List<Room> getAllRooms() {
         List<Room> rooms = new ArrayList<>();
         String sql = "SELECT * FROM rooms ORDER BY room_number";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (PooledConnection pc = pool.borrow();
+             ResultSet rs = pc.prepare(sql).executeQuery()) {
             while (rs.next()) {
-                Room room = new Room(
-                    rs.getString("room_number"),
-                    rs.getString("room_type"),
-                    rs.getInt("capacity"),
-                    rs.getDouble("rent_per_bed"),
-                    rs.getString("floor")
-                );
-                room.setOccupied(rs.getInt("occupied"));
-                rooms.add(room);
+                rooms.add(mapRoom(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error getting rooms: " + e.getMessage());
@@ -250,18 +337,10 @@ class MySQLDatabaseManager {
     public List<Room> getAvailableRooms() {
         List<Room> rooms = new ArrayList<>();
         String sql = "SELECT * FROM rooms WHERE occupied < capacity ORDER BY room_number";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (PooledConnection pc = pool.borrow();
+             ResultSet rs = pc.prepare(sql).executeQuery()) {
             while (rs.next()) {
-                Room room = new Room(
-                    rs.getString("room_number"),
-                    rs.getString("room_type"),
-                    rs.getInt("capacity"),
-                    rs.getDouble("rent_per_bed"),
-                    rs.getString("floor")
-                );
-                room.setOccupied(rs.getInt("occupied"));
-                rooms.add(room);
+                rooms.add(mapRoom(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error getting available rooms: " + e.getMessage());
@@ -269,134 +348,1216 @@ class MySQLDatabaseManager {
         return rooms;
     }
     
-    public boolean updateRoomOccupancy(String roomNumber, int occupied) {
-        String sql = "UPDATE rooms SET occupied = ? WHERE room_number = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, occupied);
-            pstmt.setString(2, roomNumber);
-            pstmt.executeUpdate();
-            return true;
+    public List<Room> findAvailableRoomsByPrefix(String prefix, int limit) {
+        List<Room> rooms = new ArrayList<>();
+        String sql = "SELECT * FROM rooms WHERE room_number LIKE ? AND occupied < capacity " +
+                     "ORDER BY room_number LIMIT ?";
+        try (PooledConnection pc = pool.borrow()) {
+            PreparedStatement pstmt = pc.prepare(sql);
+            pstmt.setString(1, likePrefix(prefix));
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rooms.add(mapRoom(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error searching rooms: " + e.getMessage());
+        }
+        return rooms;
+    }
+    
+    // Compare-and-set on the room version instead of a locking read: the previous occupancy
+    // read here is only used if the version still matches at update time.
+    public UpdateOutcome updateRoomOccupancy(String roomNumber, int occupied, long expectedVersion) {
+        try (PooledConnection pc = pool.borrow()) {
+            Connection connection = pc.getConnection();
+            connection.setAutoCommit(false);
+            PreparedStatement current = pc.prepare("SELECT occupied, capacity, version FROM rooms WHERE room_number = ?");
+            current.setString(1, roomNumber);
+            int previous;
+            try (ResultSet rs = current.executeQuery()) {
+                if (!rs.next()) {
+                    return UpdateOutcome.NOT_FOUND;
+                }
+                if (rs.getLong("version") != expectedVersion) {
+                    return UpdateOutcome.CONFLICT;
+                }
+                if (occupied < 0 || occupied > rs.getInt("capacity")) {
+                    return UpdateOutcome.REJECTED;
+                }
+                previous = rs.getInt("occupied");
+            }
+            // The capacity guard repeats the check against the row as it is at update time.
+            PreparedStatement update = pc.prepare(
+                "UPDATE rooms SET occupied = ?, version = version + 1 " +
+                "WHERE room_number = ? AND version = ? AND ? <= capacity");
+            update.setInt(1, occupied);
+            update.setString(2, roomNumber);
+            update.setLong(3, expectedVersion);
+            update.setInt(4, occupied);
+            if (update.executeUpdate() == 0) {
+                return UpdateOutcome.CONFLICT;
+            }
+            adjustOccupancySummary(pc, roomNumber, occupied - previous, 0);
+            logChange(pc, DataChangeEvent.Entity.ROOM, DataChangeEvent.Type.UPDATED, roomNumber);
+            connection.commit();
+            return UpdateOutcome.UPDATED;
         } catch (SQLException e) {
             System.err.println("Error updating room occupancy: " + e.getMessage());
-            return false;
+            return UpdateOutcome.FAILED;
+        } finally {
+            roomCache.invalidate(roomNumber);
+        }
+    }
+    
+    // Tells a failed compare-and-set apart: the row is gone, or its version moved on.
+    private static UpdateOutcome missingOrConflict(PooledConnection pc, String existsSql, String key) throws SQLException {
+        PreparedStatement pstmt = pc.prepare(existsSql);
+        pstmt.setString(1, key);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? UpdateOutcome.CONFLICT : UpdateOutcome.NOT_FOUND;
         }
     }
     
 
-    public boolean addAllocation(Allocation allocation) {
-        String sql = "INSERT INTO allocations (allocation_id, student_id, room_number, allocation_date, checkout_date, status) VALUES (?, ?, ?, ?, ?, ?)";
-        try {
+    // Claims a bed and records the allocation in one transaction. The conditional increment
+    // takes the room row lock first and only succeeds while a bed is free; the unique key on
+    // active_student_id rejects a second active allocation for the same student.
+    public boolean allocateBed(String allocationId, String studentId, String roomNumber, LocalDate allocationDate) {
+        String claimSql = "UPDATE rooms SET occupied = occupied + 1, version = version + 1 " +
+                          "WHERE room_number = ? AND occupied < capacity";
+        String insertSql = "INSERT INTO allocations (allocation_id, student_id, room_number, allocation_date, checkout_date, status) VALUES (?, ?, ?, ?, NULL, 'Active')";
+        try (PooledConnection pc = pool.borrow()) {
+            Connection connection = pc.getConnection();
             connection.setAutoCommit(false);
-            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-                pstmt.setString(1, allocation.getAllocationId());
-                pstmt.setString(2, allocation.getStudent().getStudentId());
-                pstmt.setString(3, allocation.getRoom().getRoomNumber());
-                pstmt.setDate(4, Date.valueOf(allocation.getAllocationDate()));
-                pstmt.setDate(5, allocation.getCheckoutDate() != null ? Date.valueOf(allocation.getCheckoutDate()) : null);
-                pstmt.setString(6, allocation.getStatus());
-                pstmt.executeUpdate();
-                
-                Room room = allocation.getRoom();
-                updateRoomOccupancy(room.getRoomNumber(), room.getOccupied());
-                
-                connection.commit();
-                return true;
+            
+            PreparedStatement claimStmt = pc.prepare(claimSql);
+            claimStmt.setString(1, roomNumber);
+            if (claimStmt.executeUpdate() == 0) {
+                return false;
             }
+            
+            PreparedStatement insertStmt = pc.prepare(insertSql);
+            insertStmt.setString(1, allocationId);
+            insertStmt.setString(2, studentId);
+            insertStmt.setString(3, roomNumber);
+            insertStmt.setDate(4, Date.valueOf(allocationDate));
+            insertStmt.executeUpdate();
+            adjustOccupancySummary(pc, roomNumber, 1, 1);
+            logChange(pc, DataChangeEvent.Entity.ALLOCATION, DataChangeEvent.Type.INSERTED, allocationId);
+            logChange(pc, DataChangeEvent.Entity.ROOM, DataChangeEvent.Type.UPDATED, roomNumber);
+            
+            connection.commit();
+            return true;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            System.err.println("Allocation rejected: " + e.getMessage());
+            return false;
         } catch (SQLException e) {
-            try { connection.rollback(); } catch (SQLException ex) { }
             System.err.println("Error adding allocation: " + e.getMessage());
             return false;
         } finally {
-            try { connection.setAutoCommit(true); } catch (SQLException e) { }
+            roomCache.invalidate(roomNumber);
         }
     }
     
-    public List<Allocation> getAllAllocations() {
-        List<Allocation> allocations = new ArrayList<>();
-        String sql = "SELECT * FROM allocations ORDER BY allocation_date DESC";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    // Checks the allocation out and frees its bed in a single multi-table UPDATE that only
+    // matches while the allocation is still active.
+    public boolean checkoutAllocation(Allocation allocation, LocalDate checkoutDate) {
+        String sql = "UPDATE allocations a JOIN rooms r ON r.room_number = a.room_number " +
+                     "SET a.status = 'Checkout', a.checkout_date = ?, a.version = a.version + 1, " +
+                     "r.occupied = GREATEST(r.occupied - 1, 0), r.version = r.version + 1 " +
+                     "WHERE a.allocation_id = ? AND a.status = 'Active'";
+        try (PooledConnection pc = pool.borrow()) {
+            Connection connection = pc.getConnection();
+            connection.setAutoCommit(false);
+            PreparedStatement current = pc.prepare(
+                "SELECT r.occupied FROM allocations a JOIN rooms r ON r.room_number = a.room_number " +
+                "WHERE a.allocation_id = ? AND a.status = 'Active' FOR UPDATE");
+            current.setString(1, allocation.getAllocationId());
+            boolean bedReleased;
+            try (ResultSet rs = current.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
+                }
+                // Matches the clamp below: a room already at 0 releases no bed.
+                bedReleased = rs.getInt("occupied") > 0;
+            }
+            PreparedStatement pstmt = pc.prepare(sql);
+            pstmt.setDate(1, Date.valueOf(checkoutDate));
+            pstmt.setString(2, allocation.getAllocationId());
+            if (pstmt.executeUpdate() == 0) {
+                return false;
+            }
+            adjustOccupancySummary(pc, allocation.getRoom().getRoomNumber(), bedReleased ? -1 : 0, -1);
+            logChange(pc, DataChangeEvent.Entity.ALLOCATION, DataChangeEvent.Type.UPDATED, allocation.getAllocationId());
+            logChange(pc, DataChangeEvent.Entity.ROOM, DataChangeEvent.Type.UPDATED, allocation.getRoom().getRoomNumber());
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error checking out allocation: " + e.getMessage());
+            return false;
+        } finally {
+            roomCache.invalidate(allocation.getRoom().getRoomNumber());
+        }
+    }
+    
+    // Commits planned placements in chunks of chunkSize, one transaction per chunk. Rows are
+    // ordered by room so concurrent runs take room locks in the same order. A chunk is
+    // claimed with one batched UPDATE per room; if any room no longer has the beds or an
+    // insert is rejected, the chunk is rolled back and retried row by row with savepoints
+    // so every placement gets its own outcome.
+    public List<BulkAllocationResult.Placement> allocateBeds(List<BulkAllocationResult.Placement> placements,
+                                                             LocalDate allocationDate, int chunkSize) {
+        int size = chunkSize > 0 ? chunkSize : DatabaseConfig.BULK_ALLOCATION_CHUNK_SIZE;
+        List<BulkAllocationResult.Placement> sorted = new ArrayList<>(placements);
+        sorted.sort(Comparator.comparing(BulkAllocationResult.Placement::getRoomNumber)
+            .thenComparing(BulkAllocationResult.Placement::getStudentId));
+        List<BulkAllocationResult.Placement> results = new ArrayList<>(sorted.size());
+        Set<String> touchedRooms = new HashSet<>();
+        
+        try (PooledConnection pc = pool.borrow()) {
+            Connection connection = pc.getConnection();
+            connection.setAutoCommit(false);
+            for (int from = 0; from < sorted.size(); from += size) {
+                List<BulkAllocationResult.Placement> chunk = sorted.subList(from, Math.min(from + size, sorted.size()));
+                for (BulkAllocationResult.Placement placement : chunk) {
+                    touchedRooms.add(placement.getRoomNumber());
+                }
+                try {
+                    allocateChunk(pc, chunk, allocationDate);
+                    connection.commit();
+                    for (BulkAllocationResult.Placement placement : chunk) {
+                        results.add(placement.withOutcome(BulkAllocationResult.Outcome.ALLOCATED, null));
+                    }
+                } catch (SQLException e) {
+                    connection.rollback();
+                    results.addAll(allocateRowByRow(pc, chunk, allocationDate));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error during bulk allocation: " + e.getMessage());
+            for (int i = results.size(); i < sorted.size(); i++) {
+                results.add(sorted.get(i).withOutcome(BulkAllocationResult.Outcome.FAILED,
+                    "Not allocated: " + e.getMessage()));
+            }
+        } finally {
+            for (String roomNumber : touchedRooms) {
+                roomCache.invalidate(roomNumber);
+            }
+        }
+        return results;
+    }
+    
+    private void allocateChunk(PooledConnection pc, List<BulkAllocationResult.Placement> chunk,
+                               LocalDate allocationDate) throws SQLException {
+        Map<String, Integer> bedsByRoom = new TreeMap<>();
+        for (BulkAllocationResult.Placement placement : chunk) {
+            bedsByRoom.merge(placement.getRoomNumber(), 1, Integer::sum);
+        }
+        
+        PreparedStatement claim = pc.prepare(
+            "UPDATE rooms SET occupied = occupied + ?, version = version + 1 " +
+            "WHERE room_number = ? AND occupied + ? <= capacity");
+        for (Map.Entry<String, Integer> entry : bedsByRoom.entrySet()) {
+            claim.setInt(1, entry.getValue());
+            claim.setString(2, entry.getKey());
+            claim.setInt(3, entry.getValue());
+            claim.addBatch();
+        }
+        for (int count : claim.executeBatch()) {
+            if (count == 0) {
+                throw new SQLException("A room no longer has the planned free beds");
+            }
+        }
+        
+        PreparedStatement insert = pc.prepare("INSERT INTO allocations (allocation_id, student_id, room_number, " +
+            "allocation_date, checkout_date, status) VALUES (?, ?, ?, ?, NULL, 'Active')");
+        List<String> allocationIds = new ArrayList<>(chunk.size());
+        for (BulkAllocationResult.Placement placement : chunk) {
+            insert.setString(1, placement.getAllocationId());
+            insert.setString(2, placement.getStudentId());
+            insert.setString(3, placement.getRoomNumber());
+            insert.setDate(4, Date.valueOf(allocationDate));
+            insert.addBatch();
+            allocationIds.add(placement.getAllocationId());
+        }
+        insert.executeBatch();
+        
+        PreparedStatement summary = pc.prepare(SUMMARY_ADJUST);
+        for (Map.Entry<String, Integer> entry : bedsByRoom.entrySet()) {
+            bindSummaryAdjust(summary, entry.getKey(), entry.getValue(), entry.getValue());
+            summary.addBatch();
+        }
+        summary.executeBatch();
+        logChanges(pc, DataChangeEvent.Entity.ALLOCATION, DataChangeEvent.Type.INSERTED, allocationIds);
+        logChanges(pc, DataChangeEvent.Entity.ROOM, DataChangeEvent.Type.UPDATED, bedsByRoom.keySet());
+    }
+    
+    private List<BulkAllocationResult.Placement> allocateRowByRow(PooledConnection pc,
+            List<BulkAllocationResult.Placement> chunk, LocalDate allocationDate) throws SQLException {
+        Connection connection = pc.getConnection();
+        List<BulkAllocationResult.Placement> results = new ArrayList<>(chunk.size());
+        for (BulkAllocationResult.Placement placement : chunk) {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                allocateChunk(pc, Collections.singletonList(placement), allocationDate);
+                results.add(placement.withOutcome(BulkAllocationResult.Outcome.ALLOCATED, null));
+            } catch (SQLException e) {
+                connection.rollback(savepoint);
+                // Batched statements wrap the driver's exception; the duplicate is on active_student_id.
+                SQLException cause = e.getCause() instanceof SQLException ? (SQLException) e.getCause() : e;
+                boolean duplicate = e.getErrorCode() == ER_DUP_ENTRY || cause.getErrorCode() == ER_DUP_ENTRY;
+                results.add(placement.withOutcome(duplicate ? BulkAllocationResult.Outcome.ALREADY_ALLOCATED
+                    : BulkAllocationResult.Outcome.FAILED, cause.getMessage()));
+            }
+        }
+        connection.commit();
+        return results;
+    }
+    
+    // Returns the new entry, or null if it could not be added (e.g. the student is already waiting).
+    public WaitlistEntry addToWaitlist(String studentId, String roomType, int priority) {
+        String sql = "INSERT INTO waitlist (student_id, room_type, priority, requested_at, status) VALUES (?, ?, ?, ?, 'Waiting')";
+        Timestamp requestedAt = new Timestamp(System.currentTimeMillis());
+        try (PooledConnection pc = pool.borrow()) {
+            Connection connection = pc.getConnection();
+            connection.setAutoCommit(false);
+            long waitlistId;
+            // Generated keys need a statement prepared for them, so this one bypasses the cache.
+            try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                pstmt.setString(1, studentId);
+                pstmt.setString(2, roomType);
+                pstmt.setInt(3, priority);
+                pstmt.setTimestamp(4, requestedAt);
+                pstmt.executeUpdate();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    keys.next();
+                    waitlistId = keys.getLong(1);
+                }
+            }
+            logChange(pc, DataChangeEvent.Entity.WAITLIST, DataChangeEvent.Type.INSERTED, Long.toString(waitlistId));
+            connection.commit();
+            return new WaitlistEntry(waitlistId, studentId, roomType, priority, requestedAt, "Waiting");
+        } catch (SQLException e) {
+            System.err.println("Error adding to waitlist: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    public boolean cancelWaitlistEntry(long waitlistId) {
+        return resolveWaitlistEntry(waitlistId, "Cancelled");
+    }
+    
+    private boolean resolveWaitlistEntry(long waitlistId, String status) {
+        String sql = "UPDATE waitlist SET status = ?, resolved_at = NOW(3) WHERE waitlist_id = ? AND status = 'Waiting'";
+        try (PooledConnection pc = pool.borrow()) {
+            Connection connection = pc.getConnection();
+            connection.setAutoCommit(false);
+            PreparedStatement pstmt = pc.prepare(sql);
+            pstmt.setString(1, status);
+            pstmt.setLong(2, waitlistId);
+            boolean updated = pstmt.executeUpdate() > 0;
+            if (updated) {
+                logChange(pc, DataChangeEvent.Entity.WAITLIST, DataChangeEvent.Type.UPDATED, Long.toString(waitlistId));
+            }
+            connection.commit();
+            return updated;
+        } catch (SQLException e) {
+            System.err.println("Error updating waitlist: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    public List<WaitlistEntry> getWaitingEntries() {
+        List<WaitlistEntry> entries = new ArrayList<>();
+        String sql = "SELECT * FROM waitlist WHERE status = 'Waiting' ORDER BY room_type, priority DESC, requested_at, waitlist_id";
+        try (PooledConnection pc = pool.borrow();
+             ResultSet rs = pc.prepare(sql).executeQuery()) {
             while (rs.next()) {
-                Student student = getStudentById(rs.getString("student_id"));
-                Room room = getRoomByNumber(rs.getString("room_number"));
-                if (student != null && room != null) {
-                    Allocation allocation = new Allocation(
-                        rs.getString("allocation_id"),
-                        student, room,
-                        rs.getDate("allocation_date").toLocalDate()
-                    );
-                    Date checkoutDate = rs.getDate("checkout_date");
-                    if (checkoutDate != null) {
-                        allocation.setCheckoutDate(checkoutDate.toLocalDate());
+                entries.add(mapWaitlistEntry(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting waitlist: " + e.getMessage());
+        }
+        return entries;
+    }
+    
+    public WaitlistEntry getWaitlistEntry(long waitlistId) {
+        try (PooledConnection pc = pool.borrow()) {
+            PreparedStatement pstmt = pc.prepare("SELECT * FROM waitlist WHERE waitlist_id = ?");
+            pstmt.setLong(1, waitlistId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapWaitlistEntry(rs);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting waitlist entry: " + e.getMessage());
+        }
+        return null;
+    }
+    
+    private static WaitlistEntry mapWaitlistEntry(ResultSet rs) throws SQLException {
+        return new WaitlistEntry(rs.getLong("waitlist_id"), rs.getString("student_id"), rs.getString("room_type"),
+            rs.getInt("priority"), rs.getTimestamp("requested_at"), rs.getString("status"));
+    }
+    
+    // Gives a waiting student a bed in one transaction: the entry is marked Allocated only if
+    // it is still waiting (so competing instances cannot both serve it), then the bed is
+    // claimed and the allocation inserted as in allocateBed.
+    public AllocationWaitlist.Assignment allocateFromWaitlist(WaitlistEntry entry, String allocationId,
+                                                             String roomNumber, LocalDate allocationDate) {
+        String resolveSql = "UPDATE waitlist SET status = 'Allocated', allocation_id = ?, resolved_at = NOW(3) " +
+                            "WHERE waitlist_id = ? AND status = 'Waiting'";
+        String claimSql = "UPDATE rooms SET occupied = occupied + 1, version = version + 1 " +
+                          "WHERE room_number = ? AND occupied < capacity";
+        String insertSql = "INSERT INTO allocations (allocation_id, student_id, room_number, allocation_date, checkout_date, status) VALUES (?, ?, ?, ?, NULL, 'Active')";
+        boolean rejected = false;
+        try (PooledConnection pc = pool.borrow()) {
+            Connection connection = pc.getConnection();
+            connection.setAutoCommit(false);
+            
+            PreparedStatement resolveStmt = pc.prepare(resolveSql);
+            resolveStmt.setString(1, allocationId);
+            resolveStmt.setLong(2, entry.getWaitlistId());
+            if (resolveStmt.executeUpdate() == 0) {
+                return AllocationWaitlist.Assignment.STALE;
+            }
+            PreparedStatement claimStmt = pc.prepare(claimSql);
+            claimStmt.setString(1, roomNumber);
+            if (claimStmt.executeUpdate() == 0) {
+                return AllocationWaitlist.Assignment.ROOM_FULL;
+            }
+            PreparedStatement insertStmt = pc.prepare(insertSql);
+            insertStmt.setString(1, allocationId);
+            insertStmt.setString(2, entry.getStudentId());
+            insertStmt.setString(3, roomNumber);
+            insertStmt.setDate(4, Date.valueOf(allocationDate));
+            insertStmt.executeUpdate();
+            adjustOccupancySummary(pc, roomNumber, 1, 1);
+            logChange(pc, DataChangeEvent.Entity.ALLOCATION, DataChangeEvent.Type.INSERTED, allocationId);
+            logChange(pc, DataChangeEvent.Entity.ROOM, DataChangeEvent.Type.UPDATED, roomNumber);
+            logChange(pc, DataChangeEvent.Entity.WAITLIST, DataChangeEvent.Type.UPDATED, Long.toString(entry.getWaitlistId()));
+            connection.commit();
+            return AllocationWaitlist.Assignment.ALLOCATED;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            // The student was allocated some other way, or no longer exists.
+            rejected = true;
+            return AllocationWaitlist.Assignment.STALE;
+        } catch (SQLException e) {
+            System.err.println("Error allocating from waitlist: " + e.getMessage());
+            return AllocationWaitlist.Assignment.FAILED;
+        } finally {
+            roomCache.invalidate(roomNumber);
+            if (rejected) {
+                resolveWaitlistEntry(entry.getWaitlistId(), "Cancelled");
+            }
+        }
+    }
+    
+    // Students among studentIds that currently hold an active allocation.
+    public Set<String> findActivelyAllocated(Collection<String> studentIds) {
+        Set<String> allocated = new HashSet<>();
+        List<String> ids = new ArrayList<>(studentIds);
+        try (PooledConnection pc = pool.borrow()) {
+            for (int from = 0; from < ids.size(); from += DatabaseConfig.BULK_CHUNK_SIZE) {
+                allocated.addAll(findExistingKeys(pc.getConnection(),
+                    "SELECT student_id FROM allocations WHERE status = 'Active' AND student_id IN ",
+                    ids.subList(from, Math.min(from + DatabaseConfig.BULK_CHUNK_SIZE, ids.size()))));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error checking active allocations: " + e.getMessage());
+        }
+        return allocated;
+    }
+    
+    public List<Student> getUnallocatedStudents() {
+        List<Student> students = new ArrayList<>();
+        String sql = "SELECT s.* FROM students s WHERE NOT EXISTS (SELECT 1 FROM allocations a " +
+                     "WHERE a.student_id = s.student_id AND a.status = 'Active') ORDER BY s.student_id";
+        try (PooledConnection pc = pool.borrow();
+             ResultSet rs = pc.prepare(sql).executeQuery()) {
+            while (rs.next()) {
+                students.add(mapStudent(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting unallocated students: " + e.getMessage());
+        }
+        return students;
+    }
+    
+    public Map<String, Room> getRoomsByNumber(Collection<String> roomNumbers) {
+        Map<String, Room> rooms = new HashMap<>();
+        List<String> numbers = new ArrayList<>(roomNumbers);
+        try (PooledConnection pc = pool.borrow()) {
+            for (int from = 0; from < numbers.size(); from += DatabaseConfig.BULK_CHUNK_SIZE) {
+                List<String> chunk = numbers.subList(from, Math.min(from + DatabaseConfig.BULK_CHUNK_SIZE, numbers.size()));
+                String sql = "SELECT * FROM rooms WHERE room_number IN (" +
+                             String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+                try (PreparedStatement pstmt = pc.getConnection().prepareStatement(sql)) {
+                    int index = 1;
+                    for (String roomNumber : chunk) {
+                        pstmt.setString(index++, roomNumber);
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            Room room = mapRoom(rs);
+                            rooms.put(room.getRoomNumber(), room);
+                        }
                     }
-                    allocation.setStatus(rs.getString("status"));
-                    allocations.add(allocation);
                 }
             }
+        } catch (SQLException e) {
+            System.err.println("Error getting rooms: " + e.getMessage());
+        }
+        return rooms;
+    }
+    
+    public List<Allocation> getAllAllocations() {
+        try {
+            return queryAllocations(" ORDER BY a.allocation_date DESC");
         } catch (SQLException e) {
             System.err.println("Error getting allocations: " + e.getMessage());
+            return new ArrayList<>();
         }
-        return allocations;
     }
     
     public Allocation getActiveAllocationByStudent(String studentId) {
-        String sql = "SELECT * FROM allocations WHERE student_id = ? AND status = 'Active'";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, studentId);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                Student student = getStudentById(rs.getString("student_id"));
-                Room room = getRoomByNumber(rs.getString("room_number"));
-                if (student != null && room != null) {
-                    Allocation allocation = new Allocation(
-                        rs.getString("allocation_id"),
-                        student, room,
-                        rs.getDate("allocation_date").toLocalDate()
-                    );
-                    allocation.setStatus(rs.getString("status"));
-                    return allocation;
-                }
-            }
+        try {
+            List<Allocation> allocations = queryAllocations(
+                " WHERE a.student_id = ? AND a.status = 'Active'", studentId);
+            return allocations.isEmpty() ? null : allocations.get(0);
         } catch (SQLException e) {
             System.err.println("Error getting active allocation: " + e.getMessage());
         }
         return null;
     }
     
-    public boolean updateAllocationCheckout(String allocationId, LocalDate checkoutDate) {
-        String sql = "UPDATE allocations SET checkout_date = ?, status = 'Checkout' WHERE allocation_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setDate(1, Date.valueOf(checkoutDate));
-            pstmt.setString(2, allocationId);
-            pstmt.executeUpdate();
+    public Allocation getAllocationById(String allocationId) {
+        try {
+            List<Allocation> allocations = queryAllocations(" WHERE a.allocation_id = ?", allocationId);
+            return allocations.isEmpty() ? null : allocations.get(0);
+        } catch (SQLException e) {
+            System.err.println("Error getting allocation: " + e.getMessage());
+        }
+        return null;
+    }
+    
+    public Page<Student> getStudentsPage(String afterStudentId, int limit) {
+        String sql = "SELECT * FROM students WHERE student_id > ? ORDER BY student_id LIMIT ?";
+        try {
+            return queryPage(sql, afterStudentId, limit, MySQLDatabaseManager::mapStudent, Student::getStudentId);
+        } catch (SQLException e) {
+            System.err.println("Error getting students page: " + e.getMessage());
+            return new Page<>(new ArrayList<>(), afterStudentId, false);
+        }
+    }
+    
+    public Page<Room> getRoomsPage(String afterRoomNumber, int limit) {
+        String sql = "SELECT * FROM rooms WHERE room_number > ? ORDER BY room_number LIMIT ?";
+        try {
+            return queryPage(sql, afterRoomNumber, limit, MySQLDatabaseManager::mapRoom, Room::getRoomNumber);
+        } catch (SQLException e) {
+            System.err.println("Error getting rooms page: " + e.getMessage());
+            return new Page<>(new ArrayList<>(), afterRoomNumber, false);
+        }
+    }
+    
+    public Page<Allocation> getAllocationsPage(String afterAllocationId, int limit) {
+        String sql = ALLOCATION_SELECT + " WHERE a.allocation_id > ? ORDER BY a.allocation_id LIMIT ?";
+        Map<String, Student> students = new HashMap<>();
+        Map<String, Room> rooms = new HashMap<>();
+        try {
+            return queryPage(sql, afterAllocationId, limit,
+                rs -> mapAllocation(rs, students, rooms), Allocation::getAllocationId);
+        } catch (SQLException e) {
+            System.err.println("Error getting allocations page: " + e.getMessage());
+            return new Page<>(new ArrayList<>(), afterAllocationId, false);
+        }
+    }
+    
+    public boolean forEachStudent(Consumer<? super Student> consumer) {
+        try {
+            streamQuery("SELECT * FROM students ORDER BY student_id", MySQLDatabaseManager::mapStudent, consumer);
             return true;
         } catch (SQLException e) {
-            System.err.println("Error updating allocation checkout: " + e.getMessage());
+            System.err.println("Error streaming students: " + e.getMessage());
             return false;
         }
     }
     
-    public int getNextAllocationNumber() {
-        String sql = "SELECT COUNT(*) as count FROM allocations";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next()) {
-                return rs.getInt("count") + 1;
-            }
+    public boolean forEachRoom(Consumer<? super Room> consumer) {
+        try {
+            streamQuery("SELECT * FROM rooms ORDER BY room_number", MySQLDatabaseManager::mapRoom, consumer);
+            return true;
         } catch (SQLException e) {
-            System.err.println("Error getting allocation count: " + e.getMessage());
+            System.err.println("Error streaming rooms: " + e.getMessage());
+            return false;
         }
-        return 1;
     }
     
-    public void closeConnection() {
+    public boolean forEachAllocation(Consumer<? super Allocation> consumer) {
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
+            streamQuery(ALLOCATION_SELECT + " ORDER BY a.allocation_date DESC",
+                rs -> mapAllocation(rs, null, null), consumer);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error streaming allocations: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    // Keyset pagination: the cursor is the last primary key of the previous page, and one
+    // extra row is fetched to tell whether another page follows.
+    private <T> Page<T> queryPage(String sql, String after, int limit, RowMapper<T> mapper,
+                                  Function<T, String> keyOf) throws SQLException {
+        int pageSize = limit <= 0 ? DatabaseConfig.DEFAULT_PAGE_SIZE : Math.min(limit, DatabaseConfig.MAX_PAGE_SIZE);
+        List<T> items = new ArrayList<>();
+        boolean hasMore = false;
+        try (PooledConnection pc = pool.borrow()) {
+            PreparedStatement pstmt = pc.prepare(sql);
+            pstmt.setString(1, after != null ? after : "");
+            pstmt.setInt(2, pageSize + 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (items.size() == pageSize) {
+                        hasMore = true;
+                        break;
+                    }
+                    items.add(mapper.map(rs));
+                }
+            }
+        }
+        String nextCursor = items.isEmpty() ? after : keyOf.apply(items.get(items.size() - 1));
+        return new Page<>(items, nextCursor, hasMore);
+    }
+    
+    // Rows are handed to the consumer as they arrive from the server cursor, so the
+    // full result is never held in memory.
+    private <T> void streamQuery(String sql, RowMapper<T> mapper, Consumer<? super T> consumer) throws SQLException {
+        // Not from the statement cache: the fetch size would stick to the cached statement and
+        // turn later getAllStudents/getAllRooms calls with the same SQL into cursor fetches.
+        try (PooledConnection pc = pool.borrow();
+             PreparedStatement pstmt = pc.getConnection().prepareStatement(sql)) {
+            pstmt.setFetchSize(DatabaseConfig.FETCH_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapper.map(rs));
+                }
+            }
+        }
+    }
+    
+    // Loads allocations together with their student and room in one JOIN; rows that
+    // reference the same student or room share a single instance.
+    private List<Allocation> queryAllocations(String clause, Object... params) throws SQLException {
+        List<Allocation> allocations = new ArrayList<>();
+        Map<String, Student> students = new HashMap<>();
+        Map<String, Room> rooms = new HashMap<>();
+        try (PooledConnection pc = pool.borrow()) {
+            PreparedStatement pstmt = pc.prepare(ALLOCATION_SELECT + clause);
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    allocations.add(mapAllocation(rs, students, rooms));
+                }
+            }
+        }
+        return allocations;
+    }
+    
+    private static Allocation mapAllocation(ResultSet rs, Map<String, Student> students,
+                                            Map<String, Room> rooms) throws SQLException {
+        String studentId = rs.getString("student_id");
+        Student student = students != null ? students.get(studentId) : null;
+        if (student == null) {
+            student = mapStudent(rs, "student_version");
+            if (students != null) {
+                students.put(studentId, student);
+            }
+        }
+        String roomNumber = rs.getString("room_number");
+        Room room = rooms != null ? rooms.get(roomNumber) : null;
+        if (room == null) {
+            room = mapRoom(rs, "room_version");
+            if (rooms != null) {
+                rooms.put(roomNumber, room);
+            }
+        }
+        Allocation allocation = new Allocation(
+            rs.getString("allocation_id"),
+            student, room,
+            rs.getDate("allocation_date").toLocalDate()
+        );
+        Date checkoutDate = rs.getDate("checkout_date");
+        if (checkoutDate != null) {
+            allocation.setCheckoutDate(checkoutDate.toLocalDate());
+        }
+        allocation.setStatus(rs.getString("status"));
+        allocation.setVersion(rs.getLong("allocation_version"));
+        return allocation;
+    }
+    
+    private static Student mapStudent(ResultSet rs) throws SQLException {
+        return mapStudent(rs, "version");
+    }
+    
+    private static Student mapStudent(ResultSet rs, String versionColumn) throws SQLException {
+        Student student = new Student(
+            rs.getString("student_id"),
+            rs.getString("name"),
+            rs.getString("email"),
+            rs.getString("phone"),
+            rs.getString("department")
+        );
+        student.setVersion(rs.getLong(versionColumn));
+        return student;
+    }
+    
+    private static Room mapRoom(ResultSet rs) throws SQLException {
+        return mapRoom(rs, "version");
+    }
+    
+    private static Room mapRoom(ResultSet rs, String versionColumn) throws SQLException {
+        Room room = new Room(
+            rs.getString("room_number"),
+            rs.getString("room_type"),
+            rs.getInt("capacity"),
+            rs.getDouble("rent_per_bed"),
+            rs.getString("floor")
+        );
+        room.setOccupied(rs.getInt("occupied"));
+        room.setVersion(rs.getLong(versionColumn));
+        return room;
+    }
+    
+    // Atomically advances the allocation sequence by blockSize and returns the first number
+    // of the reserved block. LAST_INSERT_ID(expr) carries the new value back on the same
+    // connection without a separate locking read.
+    public long reserveAllocationNumbers(int blockSize) throws SQLException {
+        String reserveSql = "UPDATE id_sequences SET next_value = LAST_INSERT_ID(next_value + ?) WHERE name = 'allocation'";
+        try (PooledConnection pc = pool.borrow()) {
+            PreparedStatement reserveStmt = pc.prepare(reserveSql);
+            reserveStmt.setInt(1, blockSize);
+            if (reserveStmt.executeUpdate() == 0) {
+                // First use: seed past the highest existing ALLOC number.
+                String seedSql = "INSERT IGNORE INTO id_sequences (name, next_value) " +
+                        "SELECT 'allocation', COALESCE(MAX(CAST(SUBSTRING(allocation_id, 6) AS UNSIGNED)), 0) + 1 " +
+                        "FROM allocations WHERE allocation_id LIKE 'ALLOC%'";
+                pc.prepare(seedSql).executeUpdate();
+                reserveStmt.setInt(1, blockSize);
+                if (reserveStmt.executeUpdate() == 0) {
+                    throw new SQLException("Allocation sequence could not be initialised");
+                }
+            }
+            try (ResultSet rs = pc.prepare("SELECT LAST_INSERT_ID()").executeQuery()) {
+                rs.next();
+                return rs.getLong(1) - blockSize;
+            }
+        }
+    }
+    
+    // Validates and de-duplicates each chunk, skips keys that already exist, then inserts
+    // the rest as one JDBC batch and commits. If the batch fails (e.g. a concurrent insert
+    // of the same key) the chunk is rolled back and retried row by row to classify rows.
+    private <T> BulkLoadResult bulkInsert(Collection<T> items, int chunkSize, String insertSql,
+                                          String existingKeysSql, Function<T, String> keyOf,
+                                          Function<T, String> validator, Binder<T> binder,
+                                          InsertHook insertHook) {
+        long start = System.currentTimeMillis();
+        int size = chunkSize > 0 ? chunkSize : DatabaseConfig.BULK_CHUNK_SIZE;
+        List<T> all = new ArrayList<>(items);
+        BulkLoadResult.RowResult[] results = new BulkLoadResult.RowResult[all.size()];
+        // Keys compare case-insensitively, like the default utf8mb4 collation on the key columns.
+        Set<String> seen = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        
+        try (PooledConnection pc = pool.borrow()) {
+            Connection connection = pc.getConnection();
+            connection.setAutoCommit(false);
+            for (int from = 0; from < all.size(); from += size) {
+                int to = Math.min(from + size, all.size());
+                Map<String, Integer> pending = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                for (int i = from; i < to; i++) {
+                    T item = all.get(i);
+                    String key = item != null ? keyOf.apply(item) : null;
+                    String error = item != null ? validator.apply(item) : "Missing row";
+                    if (error != null) {
+                        results[i] = new BulkLoadResult.RowResult(key, BulkLoadResult.Outcome.INVALID, error);
+                    } else if (!seen.add(key)) {
+                        results[i] = new BulkLoadResult.RowResult(key, BulkLoadResult.Outcome.DUPLICATE, "Repeated in input");
+                    } else {
+                        pending.put(key, i);
+                    }
+                }
+                
+                for (String key : findExistingKeys(connection, existingKeysSql, pending.keySet())) {
+                    Integer i = pending.remove(key);
+                    if (i != null) {
+                        results[i] = new BulkLoadResult.RowResult(keyOf.apply(all.get(i)),
+                            BulkLoadResult.Outcome.DUPLICATE, "Already exists");
+                    }
+                }
+                if (pending.isEmpty()) {
+                    continue;
+                }
+                
+                PreparedStatement pstmt = pc.prepare(insertSql);
+                try {
+                    for (int i : pending.values()) {
+                        binder.bind(pstmt, all.get(i));
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    if (insertHook != null) {
+                        insertHook.afterInsert(pc, pending.keySet());
+                    }
+                    connection.commit();
+                    for (Map.Entry<String, Integer> entry : pending.entrySet()) {
+                        results[entry.getValue()] = new BulkLoadResult.RowResult(
+                            entry.getKey(), BulkLoadResult.Outcome.INSERTED, null);
+                    }
+                } catch (BatchUpdateException e) {
+                    connection.rollback();
+                    pstmt.clearBatch();
+                    insertRowByRow(pc, pstmt, all, pending, binder, insertHook, results);
+                }
             }
         } catch (SQLException e) {
-            System.err.println("Error closing connection: " + e.getMessage());
+            System.err.println("Error during bulk insert: " + e.getMessage());
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null) {
+                    T item = all.get(i);
+                    results[i] = new BulkLoadResult.RowResult(item != null ? keyOf.apply(item) : null,
+                        BulkLoadResult.Outcome.INVALID, "Not loaded: " + e.getMessage());
+                }
+            }
+        }
+        return new BulkLoadResult(Arrays.asList(results), System.currentTimeMillis() - start);
+    }
+    
+    private <T> void insertRowByRow(PooledConnection pc, PreparedStatement pstmt, List<T> all,
+                                    Map<String, Integer> pending, Binder<T> binder, InsertHook insertHook,
+                                    BulkLoadResult.RowResult[] results) throws SQLException {
+        Connection connection = pc.getConnection();
+        List<String> inserted = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : pending.entrySet()) {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                binder.bind(pstmt, all.get(entry.getValue()));
+                pstmt.executeUpdate();
+                inserted.add(entry.getKey());
+                results[entry.getValue()] = new BulkLoadResult.RowResult(
+                    entry.getKey(), BulkLoadResult.Outcome.INSERTED, null);
+            } catch (SQLIntegrityConstraintViolationException e) {
+                connection.rollback(savepoint);
+                results[entry.getValue()] = new BulkLoadResult.RowResult(
+                    entry.getKey(), BulkLoadResult.Outcome.DUPLICATE, e.getMessage());
+            } catch (SQLException e) {
+                connection.rollback(savepoint);
+                results[entry.getValue()] = new BulkLoadResult.RowResult(
+                    entry.getKey(), BulkLoadResult.Outcome.INVALID, e.getMessage());
+            }
+        }
+        if (insertHook != null && !inserted.isEmpty()) {
+            try {
+                insertHook.afterInsert(pc, inserted);
+            } catch (SQLException e) {
+                connection.rollback();
+                for (String key : inserted) {
+                    results[pending.get(key)] = new BulkLoadResult.RowResult(
+                        key, BulkLoadResult.Outcome.INVALID, "Not loaded: " + e.getMessage());
+                }
+                return;
+            }
+        }
+        connection.commit();
+    }
+    
+    private static Set<String> findExistingKeys(Connection connection, String sqlPrefix,
+                                                Collection<String> keys) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        if (keys.isEmpty()) {
+            return existing;
+        }
+        String sql = sqlPrefix + "(" + String.join(", ", Collections.nCopies(keys.size(), "?")) + ")";
+        // Variable-length IN lists are prepared ad hoc rather than through the statement cache.
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (String key : keys) {
+                pstmt.setString(index++, key);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getString(1));
+                }
+            }
+        }
+        return existing;
+    }
+    
+    private static void bindStudent(PreparedStatement pstmt, Student student) throws SQLException {
+        pstmt.setString(1, student.getStudentId());
+        pstmt.setString(2, student.getName());
+        pstmt.setString(3, student.getEmail());
+        pstmt.setString(4, student.getPhone());
+        pstmt.setString(5, student.getDepartment());
+    }
+    
+    private static void bindRoom(PreparedStatement pstmt, Room room) throws SQLException {
+        pstmt.setString(1, room.getRoomNumber());
+        pstmt.setString(2, room.getRoomType());
+        pstmt.setInt(3, room.getCapacity());
+        pstmt.setInt(4, room.getOccupied());
+        pstmt.setDouble(5, room.getRentPerBed());
+        pstmt.setString(6, room.getFloor());
+    }
+    
+    private static String validateStudent(Student student) {
+        if (isBlank(student.getStudentId()) || student.getStudentId().length() > 20) {
+            return "Student ID is required (max 20 characters)";
+        }
+        if (isBlank(student.getName()) || student.getName().length() > 100) {
+            return "Name is required (max 100 characters)";
+        }
+        if (student.getEmail() != null && student.getEmail().length() > 100) {
+            return "Email is longer than 100 characters";
+        }
+        if (student.getPhone() != null && student.getPhone().length() > 15) {
+            return "Phone is longer than 15 characters";
+        }
+        if (student.getDepartment() != null && student.getDepartment().length() > 50) {
+            return "Department is longer than 50 characters";
+        }
+        return null;
+    }
+    
+    private static String validateRoom(Room room) {
+        if (isBlank(room.getRoomNumber()) || room.getRoomNumber().length() > 10) {
+            return "Room number is required (max 10 characters)";
+        }
+        if (isBlank(room.getRoomType()) || room.getRoomType().length() > 20) {
+            return "Room type is required (max 20 characters)";
+        }
+        if (room.getCapacity() <= 0) {
+            return "Capacity must be positive";
+        }
+        if (room.getOccupied() < 0 || room.getOccupied() > room.getCapacity()) {
+            return "Occupied beds must be between 0 and capacity";
+        }
+        if (room.getRentPerBed() <= 0) {
+            return "Rent per bed must be positive";
+        }
+        if (room.getFloor() != null && room.getFloor().length() > 20) {
+            return "Floor is longer than 20 characters";
+        }
+        return null;
+    }
+    
+    private static String likePrefix(String prefix) {
+        String value = prefix == null ? "" : prefix.trim();
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+    
+    // Adds newly inserted rooms to their floor/room type groups; runs in the insert transaction.
+    private void addRoomsToSummary(PooledConnection pc, Collection<String> roomNumbers) throws SQLException {
+        if (roomNumbers.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO occupancy_summary (" + SUMMARY_COLUMNS + ") " +
+                     "SELECT COALESCE(floor, ''), room_type, COUNT(*), SUM(capacity), SUM(occupied), " +
+                     "SUM(occupied < capacity), 0, 0 FROM rooms WHERE room_number IN (" +
+                     String.join(",", Collections.nCopies(roomNumbers.size(), "?")) + ") " +
+                     "GROUP BY COALESCE(floor, ''), room_type " +
+                     "ON DUPLICATE KEY UPDATE room_count = room_count + VALUES(room_count), " +
+                     "total_beds = total_beds + VALUES(total_beds), " +
+                     "occupied_beds = occupied_beds + VALUES(occupied_beds), " +
+                     "available_rooms = available_rooms + VALUES(available_rooms)";
+        try (PreparedStatement pstmt = pc.getConnection().prepareStatement(sql)) {
+            int index = 1;
+            for (String roomNumber : roomNumbers) {
+                pstmt.setString(index++, roomNumber);
+            }
+            pstmt.executeUpdate();
+        }
+    }
+    
+    // Must run after rooms.occupied has been changed by occupiedDelta, in the same transaction.
+    private void adjustOccupancySummary(PooledConnection pc, String roomNumber, int occupiedDelta,
+                                        int activeDelta) throws SQLException {
+        PreparedStatement pstmt = pc.prepare(SUMMARY_ADJUST);
+        bindSummaryAdjust(pstmt, roomNumber, occupiedDelta, activeDelta);
+        pstmt.executeUpdate();
+    }
+    
+    private static void bindSummaryAdjust(PreparedStatement pstmt, String roomNumber, int occupiedDelta,
+                                          int activeDelta) throws SQLException {
+        pstmt.setInt(1, occupiedDelta);
+        pstmt.setInt(2, occupiedDelta);
+        pstmt.setInt(3, activeDelta);
+        pstmt.setInt(4, activeDelta);
+        pstmt.setString(5, roomNumber);
+    }
+    
+    // Recomputes occupancy_summary from rooms and allocations. Returns the number of groups
+    // that had drifted from the base tables, or -1 on failure.
+    public int rebuildOccupancySummary() {
+        try (PooledConnection pc = pool.borrow()) {
+            Connection connection = pc.getConnection();
+            connection.setAutoCommit(false);
+            // Rooms first, as on every allocation path, so a concurrent allocation or checkout
+            // queues behind the rebuild instead of deadlocking with it on the summary rows.
+            pc.prepare("SELECT COUNT(*) FROM rooms LOCK IN SHARE MODE").executeQuery().close();
+            Map<String, String> before = readOccupancySummary(pc);
+            pc.prepare("DELETE FROM occupancy_summary").executeUpdate();
+            pc.prepare("INSERT INTO occupancy_summary (" + SUMMARY_COLUMNS + ") " + SUMMARY_AGGREGATE_SELECT).executeUpdate();
+            Map<String, String> after = readOccupancySummary(pc);
+            connection.commit();
+            
+            Set<String> groups = new HashSet<>(before.keySet());
+            groups.addAll(after.keySet());
+            int corrected = 0;
+            for (String group : groups) {
+                if (!Objects.equals(before.get(group), after.get(group))) {
+                    corrected++;
+                }
+            }
+            return corrected;
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding occupancy summary: " + e.getMessage());
+            return -1;
+        }
+    }
+    
+    private Map<String, String> readOccupancySummary(PooledConnection pc) throws SQLException {
+        Map<String, String> groups = new HashMap<>();
+        try (ResultSet rs = pc.prepare("SELECT " + SUMMARY_COLUMNS + " FROM occupancy_summary").executeQuery()) {
+            while (rs.next()) {
+                groups.put(rs.getString("floor") + "|" + rs.getString("room_type"),
+                    rs.getInt("room_count") + "," + rs.getInt("total_beds") + "," + rs.getInt("occupied_beds") + "," +
+                    rs.getInt("available_rooms") + "," + rs.getInt("active_allocations") + "," +
+                    rs.getBigDecimal("monthly_revenue").stripTrailingZeros().toPlainString());
+            }
+        }
+        return groups;
+    }
+    
+    // Room figures come from occupancy_summary, so they cost one row per floor/room type group.
+    // Everything is read in one read-only transaction, i.e. from a single consistent snapshot.
+    public HostelReport generateReport() {
+        long start = System.nanoTime();
+        HostelReport report = new HostelReport();
+        String totalsSql = "SELECT (SELECT COUNT(*) FROM students), COALESCE(SUM(room_count), 0), " +
+                           "COALESCE(SUM(available_rooms), 0), COALESCE(SUM(active_allocations), 0), " +
+                           "COALESCE(SUM(monthly_revenue), 0) FROM occupancy_summary";
+        String departmentSql = "SELECT COALESCE(s.department, '') AS label, COUNT(*) AS students, " +
+                               "COUNT(a.allocation_id) AS active, COALESCE(SUM(r.rent_per_bed), 0) AS revenue " +
+                               "FROM students s " +
+                               "LEFT JOIN allocations a ON a.student_id = s.student_id AND a.status = 'Active' " +
+                               "LEFT JOIN rooms r ON r.room_number = a.room_number " +
+                               "GROUP BY COALESCE(s.department, '') ORDER BY label";
+        String roomsSql = "SELECT room_number, capacity, occupied FROM rooms ORDER BY room_number";
+        try (PooledConnection pc = pool.borrow()) {
+            Connection connection = pc.getConnection();
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            try {
+                try (ResultSet rs = pc.prepare(totalsSql).executeQuery()) {
+                    if (rs.next()) {
+                        report.setTotals(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4), rs.getDouble(5));
+                    }
+                }
+                loadRoomBreakdown(pc, "floor", report.floors());
+                loadRoomBreakdown(pc, "room_type", report.roomTypes());
+                try (ResultSet rs = pc.prepare(departmentSql).executeQuery()) {
+                    while (rs.next()) {
+                        report.departments().add(new HostelReport.Breakdown(rs.getString("label"),
+                            rs.getInt("students"), 0, 0, rs.getInt("active"), rs.getDouble("revenue")));
+                    }
+                }
+                try (ResultSet rs = pc.prepare(roomsSql).executeQuery()) {
+                    while (rs.next()) {
+                        report.roomList().add(new HostelReport.RoomOccupancy(rs.getString("room_number"),
+                            rs.getInt("capacity"), rs.getInt("occupied")));
+                    }
+                }
+                connection.commit();
+            } finally {
+                connection.setReadOnly(false);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error generating report: " + e.getMessage());
+            return null;
+        }
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+    
+    // groupColumn is one of the occupancy_summary key columns, never user input.
+    private void loadRoomBreakdown(PooledConnection pc, String groupColumn, List<HostelReport.Breakdown> out)
+            throws SQLException {
+        String sql = "SELECT " + groupColumn + " AS label, SUM(room_count) AS rooms, SUM(total_beds) AS capacity, " +
+                     "SUM(occupied_beds) AS occupied, SUM(active_allocations) AS active, " +
+                     "SUM(monthly_revenue) AS revenue FROM occupancy_summary " +
+                     "GROUP BY " + groupColumn + " ORDER BY label";
+        try (ResultSet rs = pc.prepare(sql).executeQuery()) {
+            while (rs.next()) {
+                out.add(new HostelReport.Breakdown(rs.getString("label"), rs.getInt("rooms"),
+                    rs.getInt("capacity"), rs.getInt("occupied"), rs.getInt("active"), rs.getDouble("revenue")));
+            }
+        }
+    }
+    
+    public boolean isConnected() {
+        return pool != null;
+    }
+    
+    public String getInstanceId() {
+        return instanceId;
+    }
+    
+    private void logChange(PooledConnection pc, DataChangeEvent.Entity entity, DataChangeEvent.Type type,
+                           String key) throws SQLException {
+        logChanges(pc, entity, type, Collections.singleton(key));
+    }
+    
+    // Appends to change_log inside the caller's transaction, so the entries commit or roll
+    // back together with the change they describe.
+    private void logChanges(PooledConnection pc, DataChangeEvent.Entity entity, DataChangeEvent.Type type,
+                            Collection<String> keys) throws SQLException {
+        if (keys.isEmpty()) {
+            return;
+        }
+        PreparedStatement pstmt = pc.prepare(CHANGE_LOG_INSERT);
+        for (String key : keys) {
+            pstmt.setString(1, entity.name());
+            pstmt.setString(2, key);
+            pstmt.setString(3, type.name());
+            pstmt.setString(4, instanceId);
+            pstmt.addBatch();
+        }
+        pstmt.executeBatch();
+    }
+    
+    // Highest sequence number written so far, or 0 when the log is empty.
+    public long latestChangeSeq() throws SQLException {
+        try (PooledConnection pc = pool.borrow();
+             ResultSet rs = pc.prepare("SELECT COALESCE(MAX(seq), 0) FROM change_log").executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+    
+    public List<ChangeLogEntry> readChangeLog(long afterSeq, int limit) throws SQLException {
+        String sql = "SELECT seq, entity, entity_key, change_type, instance_id FROM change_log " +
+                     "WHERE seq > ? ORDER BY seq LIMIT ?";
+        List<ChangeLogEntry> entries = new ArrayList<>();
+        try (PooledConnection pc = pool.borrow()) {
+            PreparedStatement pstmt = pc.prepare(sql);
+            pstmt.setLong(1, afterSeq);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(mapChangeLogEntry(rs));
+                }
+            }
+        }
+        return entries;
+    }
+    
+    // Re-reads specific sequence numbers, used for entries whose transactions had not yet
+    // committed when a later sequence number was first seen.
+    public List<ChangeLogEntry> readChangeLog(Collection<Long> seqs) throws SQLException {
+        List<ChangeLogEntry> entries = new ArrayList<>();
+        if (seqs.isEmpty()) {
+            return entries;
+        }
+        String sql = "SELECT seq, entity, entity_key, change_type, instance_id FROM change_log WHERE seq IN (" +
+                     String.join(",", Collections.nCopies(seqs.size(), "?")) + ") ORDER BY seq";
+        try (PooledConnection pc = pool.borrow();
+             PreparedStatement pstmt = pc.getConnection().prepareStatement(sql)) {
+            int index = 1;
+            for (long seq : seqs) {
+                pstmt.setLong(index++, seq);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(mapChangeLogEntry(rs));
+                }
+            }
+        }
+        return entries;
+    }
+    
+    private static ChangeLogEntry mapChangeLogEntry(ResultSet rs) throws SQLException {
+        return new ChangeLogEntry(rs.getLong("seq"),
+            DataChangeEvent.Entity.valueOf(rs.getString("entity")),
+            DataChangeEvent.Type.valueOf(rs.getString("change_type")),
+            rs.getString("entity_key"), rs.getString("instance_id"));
+    }
+    
+    // Deletes entries older than the retention period in bounded batches; returns the count.
+    public int pruneChangeLog(long retentionMillis) throws SQLException {
+        String sql = "DELETE FROM change_log WHERE changed_at < NOW(3) - INTERVAL ? SECOND LIMIT 10000";
+        try (PooledConnection pc = pool.borrow()) {
+            PreparedStatement pstmt = pc.prepare(sql);
+            pstmt.setLong(1, retentionMillis / 1000);
+            return pstmt.executeUpdate();
+        }
+    }
+    
+    // Drops cached copies of a row changed by another instance.
+    public void invalidateCached(DataChangeEvent.Entity entity, String key) {
+        if (entity == DataChangeEvent.Entity.STUDENT) {
+            studentCache.invalidate(key);
+        } else if (entity == DataChangeEvent.Entity.ROOM) {
+            roomCache.invalidate(key);
+        }
+    }
+    
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+    
+    // Runs inside the insert transaction, before commit, with the keys that were inserted.
+    private interface InsertHook {
+        void afterInsert(PooledConnection pc, Collection<String> keys) throws SQLException;
+    }
+    
+    private interface Binder<T> {
+        void bind(PreparedStatement pstmt, T item) throws SQLException;
+    }
+    
+    public ConnectionPool.Stats getPoolStats() {
+        return pool != null ? pool.getStats() : null;
+    }
+    
+    public StatementCache.Counters getStatementCacheStats() {
+        return pool != null ? pool.getStatementCacheCounters() : null;
+    }
+    
+    public EntityCache.Stats getStudentCacheStats() {
+        return studentCache.getStats();
+    }
+    
+    public EntityCache.Stats getRoomCacheStats() {
+        return roomCache.getStats();
+    }
+    
+    public void closeConnection() {
+        if (pool != null) {
+            System.out.println(pool.getStats());
+            System.out.println(pool.getStatementCacheCounters());
+            System.out.println(studentCache.getStats());
+            System.out.println(roomCache.getStats());
+            pool.shutdown();
+            System.out.println("Database connection closed.");
         }
     }
 }
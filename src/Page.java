@@ -0,0 +1,24 @@
+import java.util.Collections;
+import java.util.List;
+
+class Page<T> {
+    private final List<T> items;
+    private final String nextCursor;
+    private final boolean hasMore;
+
+    public Page(List<T> items, String nextCursor, boolean hasMore) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<T> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean hasMore() { return hasMore; }
+    public int size() { return items.size(); }
+
+    @Override
+    public String toString() {
+        return "Page: " + items.size() + " items | Next: " + nextCursor + " | More: " + hasMore;
+    }
+}
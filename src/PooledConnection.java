@@ -0,0 +1,54 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class PooledConnection implements AutoCloseable {
+    private final ConnectionPool pool;
+    private final Connection connection;
+    private final StatementCache statementCache;
+    private final long createdAt;
+    private long lastReturnedAt;
+    // True while borrowed; makes a second close() of the same borrow a no-op.
+    private final AtomicBoolean borrowed = new AtomicBoolean();
+
+    PooledConnection(ConnectionPool pool, Connection connection, StatementCache statementCache) {
+        this.pool = pool;
+        this.connection = connection;
+        this.statementCache = statementCache;
+        this.createdAt = System.currentTimeMillis();
+        this.lastReturnedAt = createdAt;
+    }
+
+    public Connection getConnection() { return connection; }
+    public long getCreatedAt() { return createdAt; }
+    public long getLastReturnedAt() { return lastReturnedAt; }
+    void markReturned() { this.lastReturnedAt = System.currentTimeMillis(); }
+    void markBorrowed() { borrowed.set(true); }
+
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return statementCache.prepare(sql);
+    }
+
+    boolean isIdleLongerThan(long millis) {
+        return System.currentTimeMillis() - lastReturnedAt > millis;
+    }
+
+    void closePhysical() {
+        statementCache.close();
+        try {
+            if (!connection.isClosed()) {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (borrowed.compareAndSet(true, false)) {
+            pool.release(this);
+        }
+    }
+}
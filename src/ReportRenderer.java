@@ -0,0 +1,168 @@
+import javax.swing.JTextArea;
+import javax.swing.SwingWorker;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Renders a HostelReport into a text area section by section from a background thread.
+// The per-room listing is split into pages, each appended to the document on the EDT as
+// soon as it is built, so the UI stays responsive and the report can be cancelled midway.
+class ReportRenderer extends SwingWorker<Void, String> {
+    private static final int ROOMS_PER_CHUNK = 500;
+    private static final String RULE = "====================================================================\n";
+
+    // One line of the tabular report view; numeric fields are null where they do not apply.
+    static class Row {
+        private final String section;
+        private final String label;
+        private final Integer count;
+        private final Integer capacity;
+        private final Integer occupied;
+        private final Integer active;
+        private final Double revenue;
+
+        Row(String section, String label, Integer count, Integer capacity, Integer occupied,
+            Integer active, Double revenue) {
+            this.section = section;
+            this.label = label;
+            this.count = count;
+            this.capacity = capacity;
+            this.occupied = occupied;
+            this.active = active;
+            this.revenue = revenue;
+        }
+
+        public String getKey() { return section + "|" + label; }
+        public String getSection() { return section; }
+        public String getLabel() { return label; }
+        public Integer getCount() { return count; }
+        public Integer getCapacity() { return capacity; }
+        public Integer getOccupied() { return occupied; }
+        public Integer getActive() { return active; }
+        public Double getRevenue() { return revenue; }
+
+        public String getOccupancy() {
+            return capacity == null || occupied == null || capacity == 0 ? "" : percent(occupied, capacity) + "%";
+        }
+    }
+
+    private final HostelReport report;
+    private final JTextArea target;
+
+    public ReportRenderer(HostelReport report, JTextArea target) {
+        this.report = report;
+        this.target = target;
+    }
+
+    // Summary and group rows for the table view; per-room detail stays in the text view.
+    public static List<Row> tableRows(HostelReport report) {
+        List<Row> rows = new ArrayList<>();
+        rows.add(new Row("Summary", "Students", report.getTotalStudents(), null, null, null, null));
+        rows.add(new Row("Summary", "Rooms", report.getTotalRooms(), null, null, null, null));
+        rows.add(new Row("Summary", "Available rooms", report.getAvailableRooms(), null, null, null, null));
+        rows.add(new Row("Summary", "Active allocations", null, null, null,
+            report.getActiveAllocations(), report.getMonthlyRevenue()));
+        for (HostelReport.Breakdown b : report.getByFloor()) {
+            rows.add(groupRow("Floor", b));
+        }
+        for (HostelReport.Breakdown b : report.getByRoomType()) {
+            rows.add(groupRow("Room type", b));
+        }
+        for (HostelReport.Breakdown b : report.getByDepartment()) {
+            rows.add(new Row("Department", labelOf(b), b.getCount(), null, null,
+                b.getActiveAllocations(), b.getRevenue()));
+        }
+        return rows;
+    }
+
+    private static Row groupRow(String section, HostelReport.Breakdown b) {
+        return new Row(section, labelOf(b), b.getCount(), b.getCapacity(), b.getOccupied(),
+            b.getActiveAllocations(), b.getRevenue());
+    }
+
+    @Override
+    protected Void doInBackground() {
+        StringBuilder text = new StringBuilder(8192);
+        text.append(RULE);
+        text.append("                  HOSTEL MANAGEMENT SYSTEM REPORT                    \n");
+        text.append(RULE).append('\n');
+        text.append(" SUMMARY STATISTICS\n").append(RULE);
+        text.append(String.format("   Total Students:               %d\n", report.getTotalStudents()));
+        text.append(String.format("    Total Rooms:                %d\n", report.getTotalRooms()));
+        text.append(String.format("   Available Rooms:             %d\n", report.getAvailableRooms()));
+        text.append(String.format("   Active Allocations:          %d\n", report.getActiveAllocations()));
+        text.append(String.format("   Total Monthly Revenue:        Rs %.2f\n", report.getMonthlyRevenue()));
+        appendBreakdown(text, "OCCUPANCY BY FLOOR", report.getByFloor());
+        appendBreakdown(text, "OCCUPANCY BY ROOM TYPE", report.getByRoomType());
+        text.append("\n ALLOCATIONS BY DEPARTMENT\n").append(RULE);
+        for (HostelReport.Breakdown b : report.getByDepartment()) {
+            text.append(String.format("  %-20s %6d students, %6d allocated, Rs %.2f\n",
+                labelOf(b), b.getCount(), b.getActiveAllocations(), b.getRevenue()));
+        }
+        text.append("\n ROOM OCCUPANCY DETAILS\n").append(RULE);
+        publish(text.toString());
+
+        List<HostelReport.RoomOccupancy> rooms = report.getRooms();
+        for (int from = 0; from < rooms.size() && !isCancelled(); from += ROOMS_PER_CHUNK) {
+            text.setLength(0);
+            int to = Math.min(from + ROOMS_PER_CHUNK, rooms.size());
+            for (int i = from; i < to; i++) {
+                appendRoomLine(text, i + 1, rooms.get(i));
+            }
+            publish(text.toString());
+        }
+        if (!isCancelled()) {
+            publish("\n" + RULE + "Report generated on: " + LocalDateTime.now() +
+                    " in " + report.getElapsedMillis() + " ms\n");
+        }
+        return null;
+    }
+
+    @Override
+    protected void process(List<String> chunks) {
+        if (isCancelled()) {
+            return;
+        }
+        for (String chunk : chunks) {
+            target.append(chunk);
+        }
+    }
+
+    @Override
+    protected void done() {
+        if (isCancelled()) {
+            target.append("\n[Report rendering cancelled]\n");
+        }
+    }
+
+    private static void appendBreakdown(StringBuilder text, String title, List<HostelReport.Breakdown> rows) {
+        text.append("\n ").append(title).append('\n').append(RULE);
+        for (HostelReport.Breakdown b : rows) {
+            text.append(String.format("  %-20s %4d rooms, %5d/%-5d beds (%.0f%%), Rs %.2f\n",
+                labelOf(b), b.getCount(), b.getOccupied(), b.getCapacity(), b.getOccupancyPercent(), b.getRevenue()));
+        }
+    }
+
+    // Hand-formatted: this runs once per room, where String.format dominates the cost.
+    private static void appendRoomLine(StringBuilder text, int index, HostelReport.RoomOccupancy r) {
+        double percent = r.getOccupancyPercent();
+        String status = percent >= 100 ? " FULL" :
+                        percent >= 75 ? " NEARLY FULL" :
+                        percent >= 50 ? " HALF FULL" : " AVAILABLE";
+        text.append("  ");
+        if (index < 10) {
+            text.append(' ');
+        }
+        text.append(index).append(". Room ").append(r.getRoomNumber()).append(": ")
+            .append(r.getOccupied()).append('/').append(r.getCapacity())
+            .append(" occupied (").append(Math.round(percent)).append("%) [").append(status).append("]\n");
+    }
+
+    private static long percent(int occupied, int capacity) {
+        return capacity == 0 ? 0 : Math.round(occupied * 100.0 / capacity);
+    }
+
+    private static String labelOf(HostelReport.Breakdown b) {
+        return b.getLabel().isEmpty() ? "(none)" : b.getLabel();
+    }
+}
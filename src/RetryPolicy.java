@@ -0,0 +1,62 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded retry for compare-and-set operations. Each attempt re-reads the row and derives
+// its write from what it read; on CONFLICT the policy sleeps with jittered exponential
+// backoff and tries again, up to maxAttempts. Never wrap a write of values the caller read
+// earlier (an edit form, an API PUT): retrying those with a fresh version silently overwrites
+// the concurrent change, so their CONFLICT goes back to the caller instead.
+class RetryPolicy {
+    interface Attempt {
+        UpdateOutcome run();
+    }
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+
+    public RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be positive: " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    public static RetryPolicy fromConfig() {
+        return new RetryPolicy(DatabaseConfig.UPDATE_MAX_ATTEMPTS, DatabaseConfig.UPDATE_RETRY_BASE_DELAY_MS,
+                               DatabaseConfig.UPDATE_RETRY_MAX_DELAY_MS);
+    }
+
+    public UpdateOutcome execute(Attempt attempt) {
+        for (int i = 1; ; i++) {
+            UpdateOutcome outcome = attempt.run();
+            if (outcome != UpdateOutcome.CONFLICT) {
+                return outcome;
+            }
+            conflicts.incrementAndGet();
+            if (i == maxAttempts) {
+                exhausted.incrementAndGet();
+                return outcome;
+            }
+            long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(i - 1, 20));
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return outcome;
+            }
+        }
+    }
+
+    public long getConflicts() { return conflicts.get(); }
+    public long getExhausted() { return exhausted.get(); }
+
+    @Override
+    public String toString() {
+        return "Update retries | Conflicts: " + conflicts.get() + " | Gave up: " + exhausted.get();
+    }
+}
@@ -6,6 +6,7 @@ class Room {
     private int occupied;
     private double rentPerBed;
     private String floor;
+    private long version;
     
     public Room(String roomNumber, String roomType, int capacity, double rentPerBed, String floor) {
         this.roomNumber = roomNumber;
@@ -33,6 +34,8 @@ class Room {
     public void setRentPerBed(double rentPerBed) { this.rentPerBed = rentPerBed; }
     public String getFloor() { return floor; }
     public void setFloor(String floor) { this.floor = floor; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
     
     @Override
     public String toString() {
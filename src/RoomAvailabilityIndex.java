@@ -0,0 +1,229 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory index of bed availability. Each room gets a dense slot; per-slot attributes live
+// in primitive arrays and rooms are bucketed by free-bed count, floor and type in BitSets,
+// so "at least N free beds on floor F of type T" is a handful of word-wise AND/OR operations.
+class RoomAvailabilityIndex {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> slotByRoom = new HashMap<>();
+    private final Map<String, Integer> floorIds = new HashMap<>();
+    private final Map<String, Integer> typeIds = new HashMap<>();
+
+    private String[] roomNumbers = new String[64];
+    private int[] capacity = new int[64];
+    private int[] occupied = new int[64];
+    private double[] rent = new double[64];
+    private int[] floorOf = new int[64];
+    private int[] typeOf = new int[64];
+    private long[] version = new long[64];
+    private String[] floorNames = new String[8];
+    private String[] typeNames = new String[8];
+    private int size;
+
+    private BitSet[] byFreeBeds = new BitSet[0];
+    private BitSet[] byFloor = new BitSet[0];
+    private BitSet[] byType = new BitSet[0];
+
+    public void put(Room room) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByRoom.get(room.getRoomNumber());
+            if (slot == null) {
+                slot = size++;
+                ensureSlotCapacity(size);
+                slotByRoom.put(room.getRoomNumber(), slot);
+            } else {
+                unindex(slot);
+            }
+            roomNumbers[slot] = room.getRoomNumber();
+            capacity[slot] = room.getCapacity();
+            occupied[slot] = room.getOccupied();
+            rent[slot] = room.getRentPerBed();
+            floorOf[slot] = floorId(normalize(room.getFloor()));
+            typeOf[slot] = typeId(normalize(room.getRoomType()));
+            version[slot] = room.getVersion();
+            index(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Applies an occupancy change already committed to the database; unknown rooms are ignored.
+    // The stored version is not advanced, so prefer put() with the committed row when it is at hand.
+    public void adjustOccupied(String roomNumber, int delta) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByRoom.get(roomNumber);
+            if (slot == null) {
+                return;
+            }
+            unindex(slot);
+            occupied[slot] = Math.max(0, Math.min(capacity[slot], occupied[slot] + delta));
+            index(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slotByRoom.clear();
+            floorIds.clear();
+            typeIds.clear();
+            size = 0;
+            byFreeBeds = new BitSet[0];
+            byFloor = new BitSet[0];
+            byType = new BitSet[0];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // floor or roomType may be null to match any value.
+    public List<Room> findRooms(int minFreeBeds, String floor, String roomType) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = match(minFreeBeds, floor, roomType);
+            List<Room> rooms = new ArrayList<>(matches.cardinality());
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                rooms.add(toRoom(slot));
+            }
+            rooms.sort(Comparator.comparing(Room::getRoomNumber));
+            return rooms;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countRooms(int minFreeBeds, String floor, String roomType) {
+        lock.readLock().lock();
+        try {
+            return match(minFreeBeds, floor, roomType).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet match(int minFreeBeds, String floor, String roomType) {
+        BitSet result = new BitSet(size);
+        for (int free = Math.max(0, minFreeBeds); free < byFreeBeds.length; free++) {
+            if (byFreeBeds[free] != null) {
+                result.or(byFreeBeds[free]);
+            }
+        }
+        if (floor != null) {
+            result.and(filter(byFloor, floorIds.get(normalize(floor))));
+        }
+        if (roomType != null) {
+            result.and(filter(byType, typeIds.get(normalize(roomType))));
+        }
+        return result;
+    }
+
+    private static BitSet filter(BitSet[] buckets, Integer id) {
+        return id == null || id >= buckets.length || buckets[id] == null ? new BitSet() : buckets[id];
+    }
+
+    private Room toRoom(int slot) {
+        Room room = new Room(roomNumbers[slot], typeNames[typeOf[slot]], capacity[slot], rent[slot],
+            floorNames[floorOf[slot]].isEmpty() ? null : floorNames[floorOf[slot]]);
+        room.setOccupied(occupied[slot]);
+        room.setVersion(version[slot]);
+        return room;
+    }
+
+    private int freeBeds(int slot) {
+        return Math.max(0, capacity[slot] - occupied[slot]);
+    }
+
+    private void index(int slot) {
+        byFreeBeds = bucketFor(byFreeBeds, freeBeds(slot));
+        byFreeBeds[freeBeds(slot)].set(slot);
+        byFloor = bucketFor(byFloor, floorOf[slot]);
+        byFloor[floorOf[slot]].set(slot);
+        byType = bucketFor(byType, typeOf[slot]);
+        byType[typeOf[slot]].set(slot);
+    }
+
+    private void unindex(int slot) {
+        bucket(byFreeBeds, freeBeds(slot)).clear(slot);
+        bucket(byFloor, floorOf[slot]).clear(slot);
+        bucket(byType, typeOf[slot]).clear(slot);
+    }
+
+    private static BitSet bucket(BitSet[] buckets, int id) {
+        return id < buckets.length && buckets[id] != null ? buckets[id] : new BitSet();
+    }
+
+    private static BitSet[] bucketFor(BitSet[] buckets, int id) {
+        if (id >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, id + 1);
+        }
+        if (buckets[id] == null) {
+            buckets[id] = new BitSet();
+        }
+        return buckets;
+    }
+
+    private int floorId(String floor) {
+        Integer id = floorIds.get(floor);
+        if (id == null) {
+            id = floorIds.size();
+            floorIds.put(floor, id);
+            floorNames = grow(floorNames, id + 1);
+            floorNames[id] = floor;
+        }
+        return id;
+    }
+
+    private int typeId(String roomType) {
+        Integer id = typeIds.get(roomType);
+        if (id == null) {
+            id = typeIds.size();
+            typeIds.put(roomType, id);
+            typeNames = grow(typeNames, id + 1);
+            typeNames[id] = roomType;
+        }
+        return id;
+    }
+
+    private static String[] grow(String[] names, int needed) {
+        return needed <= names.length ? names : Arrays.copyOf(names, Math.max(needed, names.length * 2));
+    }
+
+    private void ensureSlotCapacity(int needed) {
+        if (needed <= roomNumbers.length) {
+            return;
+        }
+        int newLength = Math.max(needed, roomNumbers.length * 2);
+        roomNumbers = Arrays.copyOf(roomNumbers, newLength);
+        capacity = Arrays.copyOf(capacity, newLength);
+        occupied = Arrays.copyOf(occupied, newLength);
+        rent = Arrays.copyOf(rent, newLength);
+        floorOf = Arrays.copyOf(floorOf, newLength);
+        typeOf = Arrays.copyOf(typeOf, newLength);
+        version = Arrays.copyOf(version, newLength);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim();
+    }
+}
@@ -0,0 +1,391 @@
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Applies the ordered MIGRATIONS list and records each one in schema_version with a
+// checksum of its statements. Applied migrations must never be edited; add a new one.
+class SchemaMigrator {
+    private static final int ER_TABLE_EXISTS = 1050;
+    private static final int ER_DUP_FIELDNAME = 1060;
+    private static final int ER_DUP_KEYNAME = 1061;
+    private static final int ER_NO_SUCH_TABLE = 1146;
+    private static final String LOCK_NAME = "hostel_db_schema_migration";
+
+    interface Repair {
+        // Returns the number of rows changed; runs in its own transaction.
+        int run(Connection connection) throws SQLException;
+    }
+
+    // An active allocation as seen by the duplicate repair of migration 2.
+    static class ActiveAllocation {
+        final String studentId;
+        final String allocationId;
+        final String roomNumber;
+        final LocalDate allocationDate;
+
+        ActiveAllocation(String studentId, String allocationId, String roomNumber, LocalDate allocationDate) {
+            this.studentId = studentId;
+            this.allocationId = allocationId;
+            this.roomNumber = roomNumber;
+            this.allocationDate = allocationDate;
+        }
+    }
+
+    // Newest allocation last: by date, then by the numeric part of the ID, since the IDs are
+    // not zero-padded to a fixed width and "ALLOC9999" sorts after "ALLOC10000" as a string.
+    static final Comparator<ActiveAllocation> NEWEST_LAST = Comparator
+        .comparing((ActiveAllocation a) -> a.allocationDate)
+        .thenComparingLong(a -> allocationNumber(a.allocationId))
+        .thenComparing(a -> a.allocationId);
+
+    static class Migration {
+        private final int version;
+        private final String description;
+        private final List<String> statements;
+        private Repair repair;
+
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = Arrays.asList(statements);
+        }
+
+        // Data fix run before the statements, for rows the migration would reject. It is not
+        // part of the checksum, so one can be added to a migration that is already applied.
+        Migration repairing(Repair repair) {
+            this.repair = repair;
+            return this;
+        }
+
+        public int getVersion() { return version; }
+        public String getDescription() { return description; }
+        public List<String> getStatements() { return statements; }
+        public Repair getRepair() { return repair; }
+
+        public String checksum() {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (String statement : statements) {
+                    digest.update(statement.getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) ';');
+                }
+                StringBuilder hex = new StringBuilder();
+                for (byte b : digest.digest()) {
+                    hex.append(String.format("%02x", b));
+                }
+                return hex.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+
+    private static final List<Migration> MIGRATIONS = Arrays.asList(
+        new Migration(1, "Create students, rooms and allocations",
+            "CREATE TABLE IF NOT EXISTS students (" +
+                "student_id VARCHAR(20) PRIMARY KEY," +
+                "name VARCHAR(100) NOT NULL," +
+                "email VARCHAR(100)," +
+                "phone VARCHAR(15)," +
+                "department VARCHAR(50)" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4",
+            "CREATE TABLE IF NOT EXISTS rooms (" +
+                "room_number VARCHAR(10) PRIMARY KEY," +
+                "room_type VARCHAR(20) NOT NULL," +
+                "capacity INT NOT NULL," +
+                "occupied INT DEFAULT 0," +
+                "rent_per_bed DECIMAL(10,2) NOT NULL," +
+                "floor VARCHAR(20)" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4",
+            "CREATE TABLE IF NOT EXISTS allocations (" +
+                "allocation_id VARCHAR(20) PRIMARY KEY," +
+                "student_id VARCHAR(20) NOT NULL," +
+                "room_number VARCHAR(10) NOT NULL," +
+                "allocation_date DATE NOT NULL," +
+                "checkout_date DATE," +
+                "status VARCHAR(20) DEFAULT 'Active'," +
+                "FOREIGN KEY (student_id) REFERENCES students(student_id)," +
+                "FOREIGN KEY (room_number) REFERENCES rooms(room_number)" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+        new Migration(2, "Allow one active allocation per student",
+            "ALTER TABLE allocations ADD COLUMN active_student_id VARCHAR(20) " +
+                "AS (CASE WHEN status = 'Active' THEN student_id END) STORED",
+            "ALTER TABLE allocations ADD UNIQUE KEY uk_allocations_active_student (active_student_id)")
+            // The old check-then-insert allocation could leave a student with several active
+            // allocations; keep the newest and check the others out so the unique key applies.
+            .repairing(SchemaMigrator::checkOutDuplicateActiveAllocations),
+        new Migration(3, "Create id_sequences for allocation IDs",
+            "CREATE TABLE IF NOT EXISTS id_sequences (" +
+                "name VARCHAR(50) PRIMARY KEY," +
+                "next_value BIGINT NOT NULL" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+        new Migration(4, "Index allocation lookups and the available-room filter",
+            "CREATE INDEX idx_allocations_student_status ON allocations (student_id, status)",
+            "CREATE INDEX idx_allocations_status_date ON allocations (status, allocation_date)",
+            "CREATE INDEX idx_allocations_date ON allocations (allocation_date)",
+            "CREATE INDEX idx_rooms_available ON rooms (occupied, capacity, room_type, floor, rent_per_bed)"),
+        new Migration(5, "Index student names for type-ahead lookups",
+            "CREATE INDEX idx_students_name ON students (name)"),
+        new Migration(6, "Create occupancy_summary per floor and room type",
+            "CREATE TABLE IF NOT EXISTS occupancy_summary (" +
+                "floor VARCHAR(20) NOT NULL," +
+                "room_type VARCHAR(20) NOT NULL," +
+                "room_count INT NOT NULL DEFAULT 0," +
+                "total_beds INT NOT NULL DEFAULT 0," +
+                "occupied_beds INT NOT NULL DEFAULT 0," +
+                "available_rooms INT NOT NULL DEFAULT 0," +
+                "active_allocations INT NOT NULL DEFAULT 0," +
+                "monthly_revenue DECIMAL(14,2) NOT NULL DEFAULT 0," +
+                "PRIMARY KEY (floor, room_type)" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4",
+            "INSERT INTO occupancy_summary (floor, room_type, room_count, total_beds, occupied_beds, " +
+                "available_rooms, active_allocations, monthly_revenue) " +
+                "SELECT COALESCE(r.floor, ''), r.room_type, COUNT(*), SUM(r.capacity), SUM(r.occupied), " +
+                "SUM(r.occupied < r.capacity), COALESCE(SUM(act.active), 0), " +
+                "COALESCE(SUM(act.active * r.rent_per_bed), 0) " +
+                "FROM rooms r LEFT JOIN (SELECT room_number, COUNT(*) AS active FROM allocations " +
+                "WHERE status = 'Active' GROUP BY room_number) act ON act.room_number = r.room_number " +
+                "GROUP BY COALESCE(r.floor, ''), r.room_type"),
+        new Migration(7, "Create change_log for cross-instance invalidation",
+            "CREATE TABLE IF NOT EXISTS change_log (" +
+                "seq BIGINT AUTO_INCREMENT PRIMARY KEY," +
+                "entity VARCHAR(20) NOT NULL," +
+                "entity_key VARCHAR(20) NOT NULL," +
+                "change_type VARCHAR(10) NOT NULL," +
+                "instance_id CHAR(36) NOT NULL," +
+                "changed_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4",
+            "CREATE INDEX idx_change_log_changed_at ON change_log (changed_at)"),
+        new Migration(8, "Create waitlist for full rooms",
+            "CREATE TABLE IF NOT EXISTS waitlist (" +
+                "waitlist_id BIGINT AUTO_INCREMENT PRIMARY KEY," +
+                "student_id VARCHAR(20) NOT NULL," +
+                "room_type VARCHAR(20) NOT NULL," +
+                "priority INT NOT NULL DEFAULT 0," +
+                "requested_at TIMESTAMP(3) NOT NULL," +
+                "status VARCHAR(20) NOT NULL DEFAULT 'Waiting'," +
+                "allocation_id VARCHAR(20)," +
+                "resolved_at TIMESTAMP(3) NULL," +
+                "waiting_student_id VARCHAR(20) AS (CASE WHEN status = 'Waiting' THEN student_id END) STORED," +
+                "UNIQUE KEY uk_waitlist_waiting_student (waiting_student_id)," +
+                "KEY idx_waitlist_queue (status, room_type, priority, requested_at)," +
+                "FOREIGN KEY (student_id) REFERENCES students(student_id)" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+        new Migration(9, "Add row versions for optimistic concurrency",
+            "ALTER TABLE students ADD COLUMN version BIGINT NOT NULL DEFAULT 0",
+            "ALTER TABLE rooms ADD COLUMN version BIGINT NOT NULL DEFAULT 0",
+            "ALTER TABLE allocations ADD COLUMN version BIGINT NOT NULL DEFAULT 0")
+    );
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).getVersion();
+    }
+
+    // Returns the schema version after migrating. When the database is already current this
+    // costs a single SELECT and no DDL is executed.
+    public int migrate(Connection connection) throws SQLException {
+        Map<Integer, String> applied = loadApplied(connection);
+        verifyChecksums(applied);
+        if (!pending(applied).isEmpty()) {
+            withMigrationLock(connection, () -> {
+                // Another instance may have migrated while we waited for the lock.
+                Map<Integer, String> current = loadApplied(connection);
+                verifyChecksums(current);
+                for (Migration migration : pending(current)) {
+                    apply(connection, migration);
+                }
+            });
+        }
+        return latestVersion();
+    }
+
+    private Map<Integer, String> loadApplied(Connection connection) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        } catch (SQLException e) {
+            if (e.getErrorCode() != ER_NO_SUCH_TABLE) {
+                throw e;
+            }
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                        "version INT PRIMARY KEY," +
+                        "description VARCHAR(200) NOT NULL," +
+                        "checksum CHAR(64) NOT NULL," +
+                        "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                        ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+            }
+        }
+        return applied;
+    }
+
+    private void verifyChecksums(Map<Integer, String> applied) throws SQLException {
+        for (Migration migration : MIGRATIONS) {
+            String checksum = applied.get(migration.getVersion());
+            if (checksum != null && !checksum.equals(migration.checksum())) {
+                throw new SQLException("Checksum mismatch for applied migration " + migration.getVersion() +
+                    " (" + migration.getDescription() + ")");
+            }
+        }
+    }
+
+    private List<Migration> pending(Map<Integer, String> applied) {
+        List<Migration> pending = new ArrayList<>();
+        for (Migration migration : MIGRATIONS) {
+            if (!applied.containsKey(migration.getVersion())) {
+                pending.add(migration);
+            }
+        }
+        return pending;
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        if (migration.getRepair() != null) {
+            int repaired = repair(connection, migration.getRepair());
+            if (repaired > 0) {
+                System.out.println("Repaired " + repaired + " rows before migration " + migration.getVersion());
+            }
+        }
+        try (Statement stmt = connection.createStatement()) {
+            for (String sql : migration.getStatements()) {
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException e) {
+                    // Databases created before versioning may already contain this object.
+                    int code = e.getErrorCode();
+                    if (code != ER_TABLE_EXISTS && code != ER_DUP_FIELDNAME && code != ER_DUP_KEYNAME) {
+                        throw e;
+                    }
+                }
+            }
+        }
+        String sql = "INSERT INTO schema_version (version, description, checksum) VALUES (?, ?, ?)";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, migration.getVersion());
+            pstmt.setString(2, migration.getDescription());
+            pstmt.setString(3, migration.checksum());
+            pstmt.executeUpdate();
+        }
+        System.out.println("Applied schema migration " + migration.getVersion() + ": " + migration.getDescription());
+    }
+
+    private static int repair(Connection connection, Repair repair) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            int repaired = repair.run(connection);
+            connection.commit();
+            return repaired;
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    // The old check-then-insert allocation could leave a student with several active
+    // allocations; keeps the newest and checks the others out, freeing their beds.
+    private static int checkOutDuplicateActiveAllocations(Connection connection) throws SQLException {
+        String sql = "SELECT student_id, allocation_id, room_number, allocation_date FROM allocations " +
+                     "WHERE status = 'Active' AND student_id IN (SELECT student_id FROM allocations " +
+                     "WHERE status = 'Active' GROUP BY student_id HAVING COUNT(*) > 1) FOR UPDATE";
+        List<ActiveAllocation> active = new ArrayList<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                active.add(new ActiveAllocation(rs.getString("student_id"), rs.getString("allocation_id"),
+                    rs.getString("room_number"), rs.getDate("allocation_date").toLocalDate()));
+            }
+        }
+        List<ActiveAllocation> extra = duplicatesToCheckOut(active);
+        if (extra.isEmpty()) {
+            return 0;
+        }
+        Map<String, Integer> freedPerRoom = new HashMap<>();
+        try (PreparedStatement checkout = connection.prepareStatement(
+                "UPDATE allocations SET status = 'Checkout', checkout_date = CURDATE() " +
+                "WHERE allocation_id = ? AND status = 'Active'")) {
+            for (ActiveAllocation allocation : extra) {
+                checkout.setString(1, allocation.allocationId);
+                checkout.addBatch();
+                freedPerRoom.merge(allocation.roomNumber, 1, Integer::sum);
+            }
+            checkout.executeBatch();
+        }
+        try (PreparedStatement release = connection.prepareStatement(
+                "UPDATE rooms SET occupied = GREATEST(occupied - ?, 0) WHERE room_number = ?")) {
+            for (Map.Entry<String, Integer> room : freedPerRoom.entrySet()) {
+                release.setInt(1, room.getValue());
+                release.setString(2, room.getKey());
+                release.addBatch();
+            }
+            release.executeBatch();
+        }
+        return extra.size();
+    }
+
+    // Every active allocation except the newest one of each student.
+    static List<ActiveAllocation> duplicatesToCheckOut(List<ActiveAllocation> active) {
+        Map<String, ActiveAllocation> newest = new HashMap<>();
+        for (ActiveAllocation allocation : active) {
+            newest.merge(allocation.studentId, allocation, (a, b) -> NEWEST_LAST.compare(a, b) >= 0 ? a : b);
+        }
+        List<ActiveAllocation> extra = new ArrayList<>();
+        for (ActiveAllocation allocation : active) {
+            if (newest.get(allocation.studentId) != allocation) {
+                extra.add(allocation);
+            }
+        }
+        return extra;
+    }
+
+    // Trailing digits of an allocation ID, or -1 when it has none.
+    static long allocationNumber(String allocationId) {
+        int start = allocationId.length();
+        while (start > 0 && Character.isDigit(allocationId.charAt(start - 1))) {
+            start--;
+        }
+        if (start == allocationId.length() || allocationId.length() - start > 18) {
+            return -1;
+        }
+        return Long.parseLong(allocationId.substring(start));
+    }
+
+    private interface LockedWork {
+        void run() throws SQLException;
+    }
+
+    private void withMigrationLock(Connection connection, LockedWork work) throws SQLException {
+        try (PreparedStatement lock = connection.prepareStatement("SELECT GET_LOCK(?, 60)")) {
+            lock.setString(1, LOCK_NAME);
+            try (ResultSet rs = lock.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for the schema migration lock");
+                }
+            }
+        }
+        try {
+            work.run();
+        } finally {
+            try (PreparedStatement unlock = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                unlock.setString(1, LOCK_NAME);
+                unlock.executeQuery().close();
+            }
+        }
+    }
+}
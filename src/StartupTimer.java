@@ -0,0 +1,24 @@
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Set;
+
+// Logs named startup phases with the time since JVM launch and since the previous phase,
+// so time-to-first-interaction can be read straight from the console.
+class StartupTimer {
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final Set<String> marked = new HashSet<>();
+    private long lastMillis = jvmStartMillis;
+
+    public synchronized void mark(String phase) {
+        long now = System.currentTimeMillis();
+        System.out.println("Startup: " + phase + " at " + (now - jvmStartMillis) + " ms (+" + (now - lastMillis) + " ms)");
+        lastMillis = now;
+    }
+
+    // Only the first occurrence of a phase is logged.
+    public synchronized void markOnce(String phase) {
+        if (marked.add(phase)) {
+            mark(phase);
+        }
+    }
+}
@@ -4,6 +4,7 @@ class Student {
     private String email;
     private String phone;
     private String department;
+    private long version;
     
     public Student(String studentId, String name, String email, String phone, String department) {
         this.studentId = studentId;
@@ -23,6 +24,8 @@ class Student {
     public void setPhone(String phone) { this.phone = phone; }
     public String getDepartment() { return department; }
     public void setDepartment(String department) { this.department = department; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
     
     @Override
     public String toString() {
@@ -0,0 +1,287 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory substring search over student ID, name, email and phone. Queries of three or
+// more characters intersect trigram posting lists (sorted slot arrays) and then verify the
+// few candidates; shorter queries use a sorted prefix index over the same fields.
+class StudentSearchIndex {
+    private static final int ID = 0;
+    private static final int NAME = 1;
+    private static final int EMAIL = 2;
+    private static final int PHONE = 3;
+    private static final int FIELD_COUNT = 4;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Sorted by ID so an empty query can return the first students without sorting them all.
+    private final TreeMap<String, Integer> slotById = new TreeMap<>();
+    private final Map<Long, Postings> trigrams = new HashMap<>();
+    private final TreeMap<String, Postings> prefixes = new TreeMap<>();
+    private Student[] students = new Student[64];
+    private String[][] fields = new String[64][];
+    private int nextSlot;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    // Sorted; new slots are usually the highest, so the common case is an append.
+    private static class Postings {
+        int[] slots = new int[4];
+        int size;
+
+        void add(int slot) {
+            int i = size > 0 && slots[size - 1] < slot ? -(size + 1) : Arrays.binarySearch(slots, 0, size, slot);
+            if (i >= 0) {
+                return;
+            }
+            i = -(i + 1);
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, i, slots, i + 1, size - i);
+            slots[i] = slot;
+            size++;
+        }
+
+        void remove(int slot) {
+            int i = Arrays.binarySearch(slots, 0, size, slot);
+            if (i >= 0) {
+                System.arraycopy(slots, i + 1, slots, i, size - i - 1);
+                size--;
+            }
+        }
+
+        boolean contains(int slot) {
+            return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+        }
+    }
+
+    public void put(Student student) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(student.getStudentId());
+            int slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot++;
+            if (slot == students.length) {
+                students = Arrays.copyOf(students, slot * 2);
+                fields = Arrays.copyOf(fields, slot * 2);
+            }
+            String[] normalized = new String[FIELD_COUNT];
+            normalized[ID] = normalize(student.getStudentId());
+            normalized[NAME] = normalize(student.getName());
+            normalized[EMAIL] = normalize(student.getEmail());
+            normalized[PHONE] = normalize(student.getPhone());
+            students[slot] = student;
+            fields[slot] = normalized;
+            slotById.put(student.getStudentId(), slot);
+
+            for (long trigram : trigramsOf(normalized)) {
+                trigrams.computeIfAbsent(trigram, t -> new Postings()).add(slot);
+            }
+            for (String value : normalized) {
+                if (!value.isEmpty()) {
+                    prefixes.computeIfAbsent(value, v -> new Postings()).add(slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putAll(Iterable<Student> students) {
+        for (Student student : students) {
+            put(student);
+        }
+    }
+
+    public void remove(String studentId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(studentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slotById.clear();
+            trigrams.clear();
+            prefixes.clear();
+            students = new Student[64];
+            fields = new String[64][];
+            nextSlot = 0;
+            freeCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best matches first: exact ID, then ID prefix, name prefix, substring of ID or name,
+    // substring of email or phone. Ties are ordered by name, then ID.
+    public List<Student> search(String query, int limit) {
+        String q = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (q.isEmpty()) {
+                return all(limit);
+            }
+            int[] candidates = q.length() >= 3 ? trigramCandidates(q) : prefixCandidates(q);
+            List<int[]> ranked = new ArrayList<>();
+            for (int slot : candidates) {
+                int rank = rank(fields[slot], q);
+                if (rank >= 0) {
+                    ranked.add(new int[]{rank, slot});
+                }
+            }
+            ranked.sort(Comparator.<int[]>comparingInt(r -> r[0])
+                .thenComparing(r -> fields[r[1]][NAME])
+                .thenComparing(r -> fields[r[1]][ID]));
+            List<Student> result = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (int i = 0; i < ranked.size() && i < limit; i++) {
+                result.add(students[ranked.get(i)[1]]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The first limit students by ID; slot order is meaningless once slots are reused.
+    private List<Student> all(int limit) {
+        List<Student> result = new ArrayList<>(Math.min(limit, slotById.size()));
+        for (int slot : slotById.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(students[slot]);
+        }
+        return result;
+    }
+
+    private int[] trigramCandidates(String q) {
+        List<Postings> lists = new ArrayList<>();
+        for (long trigram : trigramsOf(new String[]{q})) {
+            Postings postings = trigrams.get(trigram);
+            if (postings == null) {
+                return new int[0];
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(p -> p.size));
+        Postings smallest = lists.get(0);
+        int[] candidates = new int[smallest.size];
+        int count = 0;
+        outer:
+        for (int i = 0; i < smallest.size; i++) {
+            int slot = smallest.slots[i];
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(slot)) {
+                    continue outer;
+                }
+            }
+            candidates[count++] = slot;
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    // For one- and two-character queries: any field value that starts with the query.
+    private int[] prefixCandidates(String q) {
+        Set<Integer> slots = new HashSet<>();
+        NavigableMap<String, Postings> matches = prefixes.subMap(q, true, q + Character.MAX_VALUE, false);
+        for (Postings postings : matches.values()) {
+            for (int i = 0; i < postings.size; i++) {
+                slots.add(postings.slots[i]);
+            }
+        }
+        int[] candidates = new int[slots.size()];
+        int i = 0;
+        for (int slot : slots) {
+            candidates[i++] = slot;
+        }
+        return candidates;
+    }
+
+    private static int rank(String[] f, String q) {
+        if (f[ID].equals(q)) {
+            return 0;
+        }
+        if (f[ID].startsWith(q)) {
+            return 1;
+        }
+        if (f[NAME].startsWith(q)) {
+            return 2;
+        }
+        if (f[ID].contains(q) || f[NAME].contains(q)) {
+            return 3;
+        }
+        if (f[EMAIL].contains(q) || f[PHONE].contains(q)) {
+            return 4;
+        }
+        return -1;
+    }
+
+    private void removeLocked(String studentId) {
+        Integer slot = slotById.remove(studentId);
+        if (slot == null) {
+            return;
+        }
+        String[] normalized = fields[slot];
+        for (long trigram : trigramsOf(normalized)) {
+            Postings postings = trigrams.get(trigram);
+            if (postings != null) {
+                postings.remove(slot);
+                if (postings.size == 0) {
+                    trigrams.remove(trigram);
+                }
+            }
+        }
+        for (String value : normalized) {
+            Postings postings = prefixes.get(value);
+            if (postings != null) {
+                postings.remove(slot);
+                if (postings.size == 0) {
+                    prefixes.remove(value);
+                }
+            }
+        }
+        students[slot] = null;
+        fields[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private static Set<Long> trigramsOf(String[] values) {
+        Set<Long> result = new HashSet<>();
+        for (String value : values) {
+            for (int i = 0; i + 3 <= value.length(); i++) {
+                result.add(((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2));
+            }
+        }
+        return result;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,109 @@
+import javax.swing.DefaultComboBoxModel;
+import javax.swing.JComboBox;
+import javax.swing.JTextField;
+import javax.swing.Timer;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Turns an editable combo box into a type-ahead: keystrokes are debounced, the lookup runs
+// through the BackgroundLoader under one key (so a newer lookup supersedes a stale one), and
+// the combo model only ever holds the current window of matches. Recent results are cached
+// until refresh() is called.
+class TypeAheadCombo {
+    interface Lookup {
+        List<String> find(String text) throws Exception;
+    }
+
+    private final JComboBox<String> comboBox;
+    private final JTextField editor;
+    private final BackgroundLoader loader;
+    private final String key;
+    private final Lookup lookup;
+    private final Timer debounce;
+    private final Map<String, List<String>> recent;
+
+    public TypeAheadCombo(JComboBox<String> comboBox, BackgroundLoader loader, String key, Lookup lookup,
+                          int debounceMillis, int cacheSize) {
+        this.comboBox = comboBox;
+        this.editor = (JTextField) comboBox.getEditor().getEditorComponent();
+        this.loader = loader;
+        this.key = key;
+        this.lookup = lookup;
+        this.recent = new LinkedHashMap<String, List<String>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.debounce = new Timer(debounceMillis, e -> query(editor.getText()));
+        this.debounce.setRepeats(false);
+
+        editor.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyReleased(KeyEvent e) {
+                if (!isNavigationKey(e.getKeyCode())) {
+                    debounce.restart();
+                }
+            }
+        });
+    }
+
+    // Drops cached matches and reloads the window for the current text, e.g. after a write.
+    public void refresh() {
+        recent.clear();
+        debounce.stop();
+        query(editor.getText());
+    }
+
+    private void query(String text) {
+        String normalized = text.trim().toLowerCase();
+        List<String> cached = recent.get(normalized);
+        if (cached != null) {
+            loader.cancel(key);
+            show(cached, text);
+            return;
+        }
+        loader.load(key, () -> lookup.find(normalized), items -> {
+            recent.put(normalized, items);
+            if (editor.getText().equals(text)) {
+                show(items, text);
+            }
+        });
+    }
+
+    private void show(List<String> items, String text) {
+        int caret = editor.getCaretPosition();
+        DefaultComboBoxModel<String> model = new DefaultComboBoxModel<>(items.toArray(new String[0]));
+        model.setSelectedItem(text.isEmpty() ? null : text);
+        comboBox.setModel(model);
+        editor.setText(text);
+        editor.setCaretPosition(Math.min(caret, text.length()));
+        if (editor.isFocusOwner() && !items.isEmpty()) {
+            comboBox.hidePopup();
+            comboBox.showPopup();
+        }
+    }
+
+    private static boolean isNavigationKey(int keyCode) {
+        switch (keyCode) {
+            case KeyEvent.VK_UP:
+            case KeyEvent.VK_DOWN:
+            case KeyEvent.VK_LEFT:
+            case KeyEvent.VK_RIGHT:
+            case KeyEvent.VK_ENTER:
+            case KeyEvent.VK_ESCAPE:
+            case KeyEvent.VK_TAB:
+            case KeyEvent.VK_SHIFT:
+            case KeyEvent.VK_CONTROL:
+            case KeyEvent.VK_ALT:
+            case KeyEvent.VK_HOME:
+            case KeyEvent.VK_END:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+// Result of a compare-and-set update against a row version.
+enum UpdateOutcome {
+    UPDATED,
+    // The row changed since the caller read it; re-read and decide again.
+    CONFLICT,
+    NOT_FOUND,
+    // The new value breaks a rule of the row, e.g. occupancy above capacity; not retried.
+    REJECTED,
+    FAILED
+}
@@ -0,0 +1,36 @@
+import java.sql.Timestamp;
+
+// A student waiting for a bed in any room of roomType. Higher priority goes first, then
+// earlier requests; the ID breaks ties between requests made in the same millisecond.
+class WaitlistEntry {
+    private final long waitlistId;
+    private final String studentId;
+    private final String roomType;
+    private final int priority;
+    private final Timestamp requestedAt;
+    private final String status;
+
+    WaitlistEntry(long waitlistId, String studentId, String roomType, int priority, Timestamp requestedAt, String status) {
+        this.waitlistId = waitlistId;
+        this.studentId = studentId;
+        this.roomType = roomType;
+        this.priority = priority;
+        this.requestedAt = requestedAt;
+        this.status = status;
+    }
+
+    public long getWaitlistId() { return waitlistId; }
+    public String getStudentId() { return studentId; }
+    public String getRoomType() { return roomType; }
+    public int getPriority() { return priority; }
+    public Timestamp getRequestedAt() { return requestedAt; }
+    // Waiting, Allocated or Cancelled.
+    public String getStatus() { return status; }
+    public boolean isWaiting() { return "Waiting".equals(status); }
+
+    @Override
+    public String toString() {
+        return "#" + waitlistId + " | Student: " + studentId + " | Type: " + roomType +
+               " | Priority: " + priority + " | Since: " + requestedAt + " | " + status;
+    }
+}
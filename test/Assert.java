@@ -0,0 +1,43 @@
+import java.util.Objects;
+
+// Minimal assertions for the plain-Java tests in this directory; see TestRunner.
+final class Assert {
+    private Assert() {
+    }
+
+    static void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    static void assertFalse(boolean condition, String message) {
+        assertTrue(!condition, message);
+    }
+
+    static void assertEquals(Object expected, Object actual, String message) {
+        if (!Objects.equals(expected, actual)) {
+            throw new AssertionError(message + ": expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+
+    static void assertNull(Object actual, String message) {
+        assertEquals(null, actual, message);
+    }
+
+    static <T extends Throwable> T assertThrows(Class<T> type, ThrowingRunnable body, String message) {
+        try {
+            body.run();
+        } catch (Throwable t) {
+            if (type.isInstance(t)) {
+                return type.cast(t);
+            }
+            throw new AssertionError(message + ": expected " + type.getSimpleName() + " but got " + t, t);
+        }
+        throw new AssertionError(message + ": expected " + type.getSimpleName() + " to be thrown");
+    }
+
+    interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
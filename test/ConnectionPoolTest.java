@@ -0,0 +1,74 @@
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+class ConnectionPoolTest {
+    private static ConnectionPool pool(int minIdle, int maxSize, long evictionIntervalMillis) throws SQLException {
+        FakeJdbc.register();
+        return new ConnectionPool(FakeJdbc.URL, "user", "secret", minIdle, maxSize, 50, 60_000,
+                                  evictionIntervalMillis, 1, 4);
+    }
+
+    static void testDoubleCloseReturnsConnectionOnce() throws Exception {
+        ConnectionPool pool = pool(1, 2, 60_000);
+        try {
+            PooledConnection pc = pool.borrow();
+            pc.close();
+            pc.close();
+            Assert.assertEquals(0, pool.getStats().getActive(), "active after double close");
+            Assert.assertEquals(1, pool.getStats().getIdle(), "idle after double close");
+
+            // Only maxSize borrows may succeed; a leaked extra permit would allow a third.
+            PooledConnection first = pool.borrow();
+            PooledConnection second = pool.borrow();
+            Assert.assertThrows(SQLTimeoutException.class, pool::borrow, "borrow beyond maxSize");
+            first.close();
+            second.close();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static void testReborrowedConnectionCanBeClosedAgain() throws Exception {
+        ConnectionPool pool = pool(1, 1, 60_000);
+        try {
+            PooledConnection pc = pool.borrow();
+            pc.close();
+            PooledConnection again = pool.borrow();
+            Assert.assertTrue(pc == again, "pool hands the idle connection out again");
+            again.close();
+            Assert.assertEquals(0, pool.getStats().getActive(), "active after second borrow is closed");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static void testBrokenConnectionIsDiscardedOnRelease() throws Exception {
+        ConnectionPool pool = pool(0, 2, 60_000);
+        try {
+            PooledConnection pc = pool.borrow();
+            pc.getConnection().close();
+            pc.close();
+            Assert.assertEquals(0, pool.getStats().getIdle(), "closed connection is not pooled");
+            Assert.assertEquals(1L, pool.getStats().getTotalClosed(), "closed connection is discarded");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static void testEvictorReplenishesToMinIdle() throws Exception {
+        ConnectionPool pool = pool(2, 3, 20);
+        try {
+            PooledConnection pc = pool.borrow();
+            pc.getConnection().close();
+            pc.close();
+            Assert.assertEquals(1, pool.getStats().getIdle(), "idle right after discarding one");
+            long deadline = System.currentTimeMillis() + 2000;
+            while (pool.getStats().getIdle() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(2, pool.getStats().getIdle(), "idle after the evictor ran");
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class EntityCacheTest {
+    private static EntityCache.Loader<String, String> counting(AtomicInteger loads) {
+        return key -> {
+            loads.incrementAndGet();
+            return key.startsWith("missing") ? null : key + "#" + loads.get();
+        };
+    }
+
+    static void testReadThroughCachesHits() throws SQLException {
+        EntityCache<String, String> cache = new EntityCache<>("test", 10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        Assert.assertEquals("a#1", cache.get("a", counting(loads)), "first read loads");
+        Assert.assertEquals("a#1", cache.get("a", counting(loads)), "second read hits");
+        EntityCache.Stats stats = cache.getStats();
+        Assert.assertEquals(1L, stats.getHits(), "hits");
+        Assert.assertEquals(1L, stats.getMisses(), "misses");
+        Assert.assertEquals(1L, stats.getLoads(), "loads");
+        Assert.assertEquals(1, stats.getSize(), "size");
+    }
+
+    static void testMissingRowsAreNotCached() throws SQLException {
+        EntityCache<String, String> cache = new EntityCache<>("test", 10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        Assert.assertNull(cache.get("missing", counting(loads)), "not found");
+        Assert.assertNull(cache.get("missing", counting(loads)), "still not found");
+        Assert.assertEquals(2, loads.get(), "loaded both times");
+        Assert.assertEquals(0, cache.getStats().getSize(), "nothing stored");
+    }
+
+    static void testEvictsLeastRecentlyUsed() throws SQLException {
+        EntityCache<String, String> cache = new EntityCache<>("test", 2, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("a", counting(loads));
+        cache.get("b", counting(loads));
+        cache.get("a", counting(loads));
+        cache.get("c", counting(loads));
+        Assert.assertEquals(1L, cache.getStats().getEvictions(), "one eviction");
+        Assert.assertEquals("a#1", cache.get("a", counting(loads)), "recently used entry kept");
+        Assert.assertEquals("b#4", cache.get("b", counting(loads)), "eldest entry reloaded");
+    }
+
+    static void testExpiredEntriesReload() throws SQLException {
+        EntityCache<String, String> cache = new EntityCache<>("test", 10, 0);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("a", counting(loads));
+        Assert.assertEquals("a#2", cache.get("a", counting(loads)), "reloaded after expiry");
+        Assert.assertEquals(1L, cache.getStats().getExpirations(), "expirations");
+    }
+
+    static void testPutAndInvalidate() throws SQLException {
+        EntityCache<String, String> cache = new EntityCache<>("test", 10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        cache.put("a", "written");
+        Assert.assertEquals("written", cache.get("a", counting(loads)), "put value served");
+        cache.invalidate("a");
+        Assert.assertEquals("a#1", cache.get("a", counting(loads)), "reloaded after invalidate");
+        cache.get("b", counting(loads));
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.getStats().getSize(), "cleared");
+    }
+
+    static void testLoadOverlappingInvalidationIsNotStored() throws SQLException {
+        EntityCache<String, String> cache = new EntityCache<>("test", 10, 60_000);
+        String stale = cache.get("a", key -> {
+            // A write lands while the old row is being read.
+            cache.invalidate("a");
+            return "stale";
+        });
+        Assert.assertEquals("stale", stale, "caller still gets its read");
+        AtomicInteger loads = new AtomicInteger();
+        Assert.assertEquals("a#1", cache.get("a", counting(loads)), "stale read was not cached");
+    }
+
+    static void testLoaderFailurePropagates() {
+        EntityCache<String, String> cache = new EntityCache<>("test", 10, 60_000);
+        Assert.assertThrows(SQLException.class, () -> cache.get("a", key -> {
+            throw new SQLException("down");
+        }), "loader exception");
+        Assert.assertEquals(0, cache.getStats().getSize(), "nothing stored");
+    }
+}
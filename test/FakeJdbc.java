@@ -0,0 +1,113 @@
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+// In-memory JDBC driver for "jdbc:fake:" URLs, so the pool can be tested without MySQL.
+// Connections only track whether they are closed and their auto-commit flag.
+class FakeJdbc implements Driver {
+    static final String URL = "jdbc:fake:hostel";
+    static final AtomicInteger opened = new AtomicInteger();
+
+    static {
+        try {
+            DriverManager.registerDriver(new FakeJdbc());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    static void register() {
+        // Registration happens in the static initializer.
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        opened.incrementAndGet();
+        boolean[] closed = {false};
+        boolean[] autoCommit = {true};
+        return (Connection) Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "isValid":
+                        return !closed[0];
+                    case "isClosed":
+                        return closed[0];
+                    case "close":
+                        closed[0] = true;
+                        return null;
+                    case "getAutoCommit":
+                        return autoCommit[0];
+                    case "setAutoCommit":
+                        autoCommit[0] = (Boolean) args[0];
+                        return null;
+                    case "prepareStatement":
+                        return statement();
+                    default:
+                        return defaultValue(method.getReturnType());
+                }
+            });
+    }
+
+    private static PreparedStatement statement() {
+        boolean[] closed = {false};
+        return (PreparedStatement) Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(),
+            new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                if (method.getName().equals("close")) {
+                    closed[0] = true;
+                    return null;
+                }
+                if (method.getName().equals("isClosed")) {
+                    return closed[0];
+                }
+                return defaultValue(method.getReturnType());
+            });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith("jdbc:fake:");
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() { return 1; }
+
+    @Override
+    public int getMinorVersion() { return 0; }
+
+    @Override
+    public boolean jdbcCompliant() { return false; }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+}
@@ -0,0 +1,49 @@
+import java.util.Map;
+
+class JsonTest {
+    static void testQuoteEscapesControlCharacters() {
+        Assert.assertEquals("\"a\\\"b\\\\c\\n\\t\\u0001\"", Json.quote("a\"b\\c\n\t\u0001"), "escaped string");
+        Assert.assertEquals("null", Json.quote(null), "null string");
+    }
+
+    static void testAppendValueWritesNumbersAndBooleansBare() {
+        StringBuilder out = new StringBuilder();
+        Json.appendValue(out, 3);
+        out.append(',');
+        Json.appendValue(out, true);
+        out.append(',');
+        Json.appendValue(out, null);
+        out.append(',');
+        Json.appendValue(out, "3");
+        Assert.assertEquals("3,true,null,\"3\"", out.toString(), "bare and quoted values");
+    }
+
+    static void testParseObjectReadsFlatValues() {
+        Map<String, Object> parsed = Json.parseObject(
+            " { \"id\" : \"S001\", \"version\": 7, \"rent\": -1.5e2, \"active\": false, \"email\": null } ");
+        Assert.assertEquals("S001", parsed.get("id"), "string");
+        Assert.assertEquals(7.0, parsed.get("version"), "integer as double");
+        Assert.assertEquals(-150.0, parsed.get("rent"), "exponent");
+        Assert.assertEquals(Boolean.FALSE, parsed.get("active"), "boolean");
+        Assert.assertTrue(parsed.containsKey("email"), "null kept as a key");
+        Assert.assertNull(parsed.get("email"), "null value");
+        Assert.assertEquals(0, Json.parseObject("{}").size(), "empty object");
+    }
+
+    static void testParseObjectRoundTripsQuotedStrings() {
+        String original = "quote \" slash \\ tab \t newline \n bell \u0007 é";
+        Map<String, Object> parsed = Json.parseObject("{\"name\":" + Json.quote(original) + "}");
+        Assert.assertEquals(original, parsed.get("name"), "round trip");
+        Assert.assertEquals("a/b\u00e9", Json.parseObject("{\"s\":\"a\\/b\\u00e9\"}").get("s"), "escapes");
+    }
+
+    static void testParseObjectRejectsBadInput() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\":{\"b\":1}}"), "nested object");
+        Assert.assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\":[1]}"), "array");
+        Assert.assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\":1} x"), "trailing content");
+        Assert.assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\":1"), "unterminated");
+        Assert.assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\":\"\\u12\"}"), "short escape");
+        Assert.assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\":1-}"), "bad number");
+        Assert.assertThrows(IllegalArgumentException.class, () -> Json.parseObject(""), "empty input");
+    }
+}
@@ -0,0 +1,123 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import javax.swing.event.TableModelEvent;
+
+class ListTableModelTest {
+    // Rows are {key, value}; the table is ordered by key, newest (highest) first.
+    private static ListTableModel<String[]> newestFirst() {
+        Comparator<String[]> byKeyDescending = (a, b) -> b[0].compareTo(a[0]);
+        return new ListTableModel<String[]>(row -> row[0], byKeyDescending)
+            .addColumn("Key", row -> row[0])
+            .addColumn("Value", row -> row[1]);
+    }
+
+    private static String[] row(String key, String value) {
+        return new String[] {key, value};
+    }
+
+    private static List<String> keys(ListTableModel<String[]> model) {
+        List<String> keys = new ArrayList<>();
+        for (String[] row : model.getRows()) {
+            keys.add(row[0]);
+        }
+        return keys;
+    }
+
+    static void testUpsertReplacesInPlace() {
+        ListTableModel<String[]> model = newestFirst();
+        model.setRows(new ArrayList<>(Arrays.asList(row("c", "1"), row("b", "1"), row("a", "1"))));
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+        model.upsert(row("b", "2"));
+        Assert.assertEquals(Arrays.asList("c", "b", "a"), keys(model), "order unchanged");
+        Assert.assertEquals("2", model.getValueAt(1, 1), "value replaced");
+        Assert.assertEquals(1, events.size(), "one event");
+        Assert.assertEquals(TableModelEvent.UPDATE, events.get(0).getType(), "update event");
+        Assert.assertEquals(1, events.get(0).getFirstRow(), "updated row");
+    }
+
+    static void testInsertsLandAtSortedPosition() {
+        ListTableModel<String[]> model = newestFirst();
+        model.setRows(new ArrayList<>(Arrays.asList(row("d", "1"), row("b", "1"))));
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+        model.upsert(row("e", "1"));
+        model.upsert(row("c", "1"));
+        model.upsert(row("a", "1"));
+        Assert.assertEquals(Arrays.asList("e", "d", "c", "b", "a"), keys(model), "sorted");
+        Assert.assertEquals(TableModelEvent.INSERT, events.get(1).getType(), "insert event");
+        Assert.assertEquals(2, events.get(1).getFirstRow(), "inserted row");
+        Assert.assertEquals("1", model.find("d")[1], "shifted row still found");
+    }
+
+    static void testNewestFirstRunOfInsertsKeepsLookupsRight() {
+        ListTableModel<String[]> model = newestFirst();
+        model.setRows(new ArrayList<>());
+        for (int i = 100; i < 200; i++) {
+            model.upsert(row("A" + i, "v" + i));
+        }
+        Assert.assertEquals("A199", model.getRow(0)[0], "newest on top");
+        for (int i = 100; i < 200; i++) {
+            Assert.assertEquals("v" + i, model.find("A" + i)[1], "lookup of A" + i);
+        }
+        model.upsert(row("A150", "changed"));
+        Assert.assertEquals("changed", model.getValueAt(49, 1), "update hits the right row");
+    }
+
+    static void testRemoveAndRemoveIf() {
+        ListTableModel<String[]> model = newestFirst();
+        model.setRows(new ArrayList<>(Arrays.asList(
+            row("e", "x"), row("d", "y"), row("c", "x"), row("b", "y"), row("a", "x"))));
+        Assert.assertTrue(model.remove("d"), "removed");
+        Assert.assertFalse(model.remove("d"), "already gone");
+        Assert.assertEquals(2, model.removeIf(r -> r[1].equals("x") && !r[0].equals("a")), "removed by filter");
+        Assert.assertEquals(Arrays.asList("b", "a"), keys(model), "remaining rows");
+        Assert.assertNull(model.find("e"), "filtered row gone");
+        Assert.assertEquals("y", model.find("b")[1], "shifted row found");
+        model.upsert(row("c", "z"));
+        Assert.assertEquals(Arrays.asList("c", "b", "a"), keys(model), "reinserted");
+    }
+
+    static void testAppendsWithoutOrder() {
+        ListTableModel<String[]> model = new ListTableModel<String[]>(r -> r[0], null).addColumn("Key", r -> r[0]);
+        model.upsert(row("b", "1"));
+        model.upsert(row("a", "1"));
+        Assert.assertEquals(Arrays.asList("b", "a"), keys(model), "appended in arrival order");
+        Assert.assertEquals(1, model.getColumnCount(), "columns");
+        Assert.assertEquals("Key", model.getColumnName(0), "column name");
+    }
+
+    // Random upserts and removals against a plain sorted list.
+    static void testMatchesSortedListUnderRandomEdits() {
+        Random random = new Random(42);
+        ListTableModel<String[]> model = newestFirst();
+        model.setRows(new ArrayList<>());
+        List<String[]> expected = new ArrayList<>();
+        for (int step = 0; step < 2000; step++) {
+            String key = "K" + (100 + random.nextInt(200));
+            int op = random.nextInt(4);
+            if (op == 0) {
+                model.remove(key);
+                expected.removeIf(r -> r[0].equals(key));
+            } else if (op == 1) {
+                String[] found = model.find(key);
+                String[] want = expected.stream().filter(r -> r[0].equals(key)).findFirst().orElse(null);
+                Assert.assertTrue(found == want || (found != null && want != null && found[1].equals(want[1])),
+                    "find " + key + " at step " + step);
+            } else {
+                String[] row = row(key, "s" + step);
+                model.upsert(row);
+                expected.removeIf(r -> r[0].equals(key));
+                expected.add(row);
+                expected.sort((a, b) -> b[0].compareTo(a[0]));
+            }
+        }
+        Assert.assertEquals(expected.size(), model.getRowCount(), "row count");
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i)[1], model.getValueAt(i, 1), "row " + i);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+class RetryPolicyTest {
+    static void testRetriesConflictsUntilUpdated() {
+        RetryPolicy policy = new RetryPolicy(5, 0, 0);
+        AtomicInteger attempts = new AtomicInteger();
+        UpdateOutcome outcome = policy.execute(() ->
+            attempts.incrementAndGet() < 3 ? UpdateOutcome.CONFLICT : UpdateOutcome.UPDATED);
+        Assert.assertEquals(UpdateOutcome.UPDATED, outcome, "outcome");
+        Assert.assertEquals(3, attempts.get(), "attempts");
+        Assert.assertEquals(2L, policy.getConflicts(), "conflicts");
+        Assert.assertEquals(0L, policy.getExhausted(), "exhausted");
+    }
+
+    static void testGivesUpAfterMaxAttempts() {
+        RetryPolicy policy = new RetryPolicy(3, 1, 2);
+        AtomicInteger attempts = new AtomicInteger();
+        UpdateOutcome outcome = policy.execute(() -> {
+            attempts.incrementAndGet();
+            return UpdateOutcome.CONFLICT;
+        });
+        Assert.assertEquals(UpdateOutcome.CONFLICT, outcome, "conflict surfaced");
+        Assert.assertEquals(3, attempts.get(), "attempts");
+        Assert.assertEquals(3L, policy.getConflicts(), "conflicts");
+        Assert.assertEquals(1L, policy.getExhausted(), "exhausted");
+    }
+
+    static void testOnlyConflictsAreRetried() {
+        RetryPolicy policy = new RetryPolicy(5, 0, 0);
+        for (UpdateOutcome result : UpdateOutcome.values()) {
+            if (result == UpdateOutcome.CONFLICT) {
+                continue;
+            }
+            AtomicInteger attempts = new AtomicInteger();
+            UpdateOutcome outcome = policy.execute(() -> {
+                attempts.incrementAndGet();
+                return result;
+            });
+            Assert.assertEquals(result, outcome, "outcome for " + result);
+            Assert.assertEquals(1, attempts.get(), "attempts for " + result);
+        }
+        Assert.assertEquals(0L, policy.getConflicts(), "no conflicts counted");
+    }
+
+    static void testInterruptStopsRetrying() {
+        RetryPolicy policy = new RetryPolicy(5, 1000, 1000);
+        AtomicInteger attempts = new AtomicInteger();
+        Thread.currentThread().interrupt();
+        try {
+            UpdateOutcome outcome = policy.execute(() -> {
+                attempts.incrementAndGet();
+                return UpdateOutcome.CONFLICT;
+            });
+            Assert.assertEquals(UpdateOutcome.CONFLICT, outcome, "conflict surfaced");
+            Assert.assertEquals(1, attempts.get(), "no retry after interrupt");
+            Assert.assertTrue(Thread.currentThread().isInterrupted(), "interrupt flag restored");
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    static void testRejectsNonPositiveAttempts() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(0, 0, 0), "zero attempts");
+    }
+}
@@ -0,0 +1,80 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class RoomAvailabilityIndexTest {
+    private static Room room(String number, String type, int capacity, int occupied, String floor, long version) {
+        Room room = new Room(number, type, capacity, 5000, floor);
+        room.setOccupied(occupied);
+        room.setVersion(version);
+        return room;
+    }
+
+    private static List<String> numbers(List<Room> rooms) {
+        List<String> numbers = new ArrayList<>();
+        for (Room room : rooms) {
+            numbers.add(room.getRoomNumber());
+        }
+        return numbers;
+    }
+
+    private static RoomAvailabilityIndex sample() {
+        RoomAvailabilityIndex index = new RoomAvailabilityIndex();
+        index.put(room("B201", "Double", 2, 0, "2", 4));
+        index.put(room("A101", "Single", 1, 0, "1", 1));
+        index.put(room("A102", "Double", 2, 1, "1", 7));
+        index.put(room("A103", "Triple", 3, 3, "1", 2));
+        return index;
+    }
+
+    static void testFindsRoomsWithEnoughFreeBedsInRoomOrder() {
+        RoomAvailabilityIndex index = sample();
+        Assert.assertEquals(Arrays.asList("A101", "A102", "B201"), numbers(index.findRooms(1, null, null)),
+            "rooms with a free bed");
+        Assert.assertEquals(Arrays.asList("B201"), numbers(index.findRooms(2, null, null)), "two free beds");
+        Assert.assertEquals(3, index.countRooms(1, null, null), "count matches find");
+    }
+
+    static void testFiltersByFloorAndTypeIgnoringSurroundingSpaces() {
+        RoomAvailabilityIndex index = sample();
+        Assert.assertEquals(Arrays.asList("A102"), numbers(index.findRooms(1, "1", " Double ")), "floor and type");
+        Assert.assertEquals(0, index.findRooms(1, "9", null).size(), "unknown floor matches nothing");
+    }
+
+    static void testRoomsCarryTheirVersion() {
+        RoomAvailabilityIndex index = sample();
+        for (Room room : index.findRooms(0, null, null)) {
+            if (room.getRoomNumber().equals("A102")) {
+                Assert.assertEquals(7L, room.getVersion(), "version from the indexed row");
+                return;
+            }
+        }
+        throw new AssertionError("A102 not found");
+    }
+
+    static void testPutReplacesRowAndVersion() {
+        RoomAvailabilityIndex index = sample();
+        index.put(room("A102", "Double", 2, 2, "1", 8));
+        Assert.assertEquals(Arrays.asList("A101", "B201"), numbers(index.findRooms(1, null, null)), "A102 now full");
+        Room full = index.findRooms(0, "1", "Double").get(0);
+        Assert.assertEquals(8L, full.getVersion(), "replaced version");
+        Assert.assertEquals(4, index.size(), "no duplicate slot");
+    }
+
+    static void testAdjustOccupiedClampsToCapacity() {
+        RoomAvailabilityIndex index = sample();
+        index.adjustOccupied("A101", 5);
+        Assert.assertEquals(0, index.countRooms(1, null, "Single"), "full after overshoot");
+        index.adjustOccupied("A101", -9);
+        Assert.assertEquals(1, index.findRooms(1, null, "Single").get(0).getAvailableBeds(), "never negative");
+        index.adjustOccupied("Z999", 1);
+        Assert.assertEquals(4, index.size(), "unknown rooms are ignored");
+    }
+
+    static void testClearEmptiesTheIndex() {
+        RoomAvailabilityIndex index = sample();
+        index.clear();
+        Assert.assertEquals(0, index.size(), "size after clear");
+        Assert.assertEquals(0, index.findRooms(0, null, null).size(), "no rooms after clear");
+    }
+}
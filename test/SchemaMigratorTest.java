@@ -0,0 +1,54 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class SchemaMigratorTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 7, 1);
+
+    private static SchemaMigrator.ActiveAllocation active(String studentId, String allocationId, String room,
+                                                          LocalDate date) {
+        return new SchemaMigrator.ActiveAllocation(studentId, allocationId, room, date);
+    }
+
+    private static List<String> ids(List<SchemaMigrator.ActiveAllocation> allocations) {
+        List<String> ids = new ArrayList<>();
+        for (SchemaMigrator.ActiveAllocation allocation : allocations) {
+            ids.add(allocation.allocationId);
+        }
+        return ids;
+    }
+
+    static void testKeepsNumericallyNewestIdOnTheSameDate() {
+        List<SchemaMigrator.ActiveAllocation> extra = SchemaMigrator.duplicatesToCheckOut(Arrays.asList(
+            active("S1", "ALLOC9999", "A101", DAY),
+            active("S1", "ALLOC10000", "A102", DAY)));
+        Assert.assertEquals(Arrays.asList("ALLOC9999"), ids(extra), "string-max ID must not survive");
+    }
+
+    static void testKeepsLatestDateBeforeHigherNumber() {
+        List<SchemaMigrator.ActiveAllocation> extra = SchemaMigrator.duplicatesToCheckOut(Arrays.asList(
+            active("S1", "ALLOC0500", "A101", DAY.plusDays(3)),
+            active("S1", "ALLOC0900", "A102", DAY)));
+        Assert.assertEquals(Arrays.asList("ALLOC0900"), ids(extra), "older allocation is checked out");
+    }
+
+    static void testChecksOutEveryExtraPerStudent() {
+        List<SchemaMigrator.ActiveAllocation> extra = SchemaMigrator.duplicatesToCheckOut(Arrays.asList(
+            active("S1", "ALLOC0001", "A101", DAY),
+            active("S1", "ALLOC0002", "A101", DAY),
+            active("S1", "ALLOC0003", "A101", DAY),
+            active("S2", "ALLOC0004", "B201", DAY)));
+        Assert.assertEquals(Arrays.asList("ALLOC0001", "ALLOC0002"), ids(extra), "two of three in one room");
+    }
+
+    static void testAllocationNumber() {
+        Assert.assertEquals(10000L, SchemaMigrator.allocationNumber("ALLOC10000"), "plain suffix");
+        Assert.assertEquals(7L, SchemaMigrator.allocationNumber("ALLOC0007"), "zero-padded suffix");
+        Assert.assertEquals(-1L, SchemaMigrator.allocationNumber("LEGACY"), "no digits");
+    }
+
+    static void testLatestVersionIsLastMigration() {
+        Assert.assertTrue(SchemaMigrator.latestVersion() >= 9, "latest version includes row versions");
+    }
+}
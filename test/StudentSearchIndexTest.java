@@ -0,0 +1,74 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class StudentSearchIndexTest {
+    private static Student student(String id, String name, String email, String phone) {
+        return new Student(id, name, email, phone, "CSE");
+    }
+
+    private static List<String> ids(List<Student> students) {
+        List<String> ids = new ArrayList<>();
+        for (Student student : students) {
+            ids.add(student.getStudentId());
+        }
+        return ids;
+    }
+
+    private static StudentSearchIndex sample() {
+        StudentSearchIndex index = new StudentSearchIndex();
+        index.put(student("S003", "Carol Diaz", "carol@example.com", "9000000003"));
+        index.put(student("S001", "Asha Rao", "asha@example.com", "9000000001"));
+        index.put(student("S002", "Bilal Khan", "bilal@example.com", "9000000002"));
+        index.put(student("S010", "Ashok Menon", "ashok@example.com", "9000000010"));
+        return index;
+    }
+
+    static void testEmptyQueryReturnsFirstStudentsById() {
+        StudentSearchIndex index = sample();
+        Assert.assertEquals(Arrays.asList("S001", "S002"), ids(index.search("", 2)), "first two by ID");
+    }
+
+    static void testEmptyQueryIgnoresReusedSlots() {
+        StudentSearchIndex index = sample();
+        // S001 and S002 free low slots that the later students reuse.
+        index.remove("S001");
+        index.remove("S002");
+        index.put(student("S900", "Zed", null, null));
+        index.put(student("S000", "Aaron", null, null));
+        Assert.assertEquals(Arrays.asList("S000", "S003"), ids(index.search("  ", 2)),
+            "first two by ID after slot reuse");
+        Assert.assertEquals(4, index.size(), "size after removals and puts");
+    }
+
+    static void testRanksExactIdFirstThenPrefixes() {
+        StudentSearchIndex index = sample();
+        index.put(student("ASH1", "Zara Ash", null, null));
+        List<String> found = ids(index.search("ash", 10));
+        Assert.assertEquals(Arrays.asList("ASH1", "S001", "S010"), found.subList(0, 3),
+            "ID prefix, then name prefixes by name");
+    }
+
+    static void testShortQueriesUsePrefixes() {
+        StudentSearchIndex index = sample();
+        Assert.assertEquals(Arrays.asList("S002"), ids(index.search("bi", 10)), "two-character name prefix");
+        Assert.assertEquals(Arrays.asList("S001", "S010", "S002", "S003"), ids(index.search("s", 10)),
+            "one-character ID prefix, ties by name");
+    }
+
+    static void testSubstringOfEmailAndPhone() {
+        StudentSearchIndex index = sample();
+        Assert.assertEquals(Arrays.asList("S002"), ids(index.search("BILAL@", 10)), "case-insensitive email");
+        Assert.assertEquals(Arrays.asList("S010"), ids(index.search("000010", 10)), "phone substring");
+        Assert.assertEquals(0, index.search("nobody", 10).size(), "no match");
+    }
+
+    static void testPutReplacesAndRemoveForgets() {
+        StudentSearchIndex index = sample();
+        index.put(student("S002", "Bilal Qureshi", "bq@example.com", null));
+        Assert.assertEquals(0, index.search("khan", 10).size(), "old name no longer indexed");
+        Assert.assertEquals(Arrays.asList("S002"), ids(index.search("qureshi", 10)), "new name indexed");
+        index.remove("S002");
+        Assert.assertEquals(0, index.search("qureshi", 10).size(), "removed student not found");
+    }
+}
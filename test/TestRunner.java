@@ -0,0 +1,53 @@
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+
+// Runs every static no-argument test* method of the listed test classes. No framework is
+// needed, so the tests build with the same javac command as the application:
+//   javac -d /tmp/hostel-test -cp lib/mysql-connector-j-9.5.0.jar src/*.java test/*.java
+//   java -cp /tmp/hostel-test:lib/mysql-connector-j-9.5.0.jar TestRunner
+class TestRunner {
+    private static final Class<?>[] TEST_CLASSES = {
+        ConnectionPoolTest.class,
+        SchemaMigratorTest.class,
+        RoomAvailabilityIndexTest.class,
+        StudentSearchIndexTest.class,
+        JsonTest.class,
+        RetryPolicyTest.class,
+        ListTableModelTest.class,
+        EntityCacheTest.class,
+    };
+
+    public static void main(String[] args) {
+        int passed = 0;
+        int failed = 0;
+        for (Class<?> testClass : TEST_CLASSES) {
+            Method[] methods = testClass.getDeclaredMethods();
+            Arrays.sort(methods, Comparator.comparing(Method::getName));
+            for (Method method : methods) {
+                if (!method.getName().startsWith("test") || !Modifier.isStatic(method.getModifiers()) ||
+                    method.getParameterCount() != 0) {
+                    continue;
+                }
+                String name = testClass.getSimpleName() + "." + method.getName();
+                try {
+                    method.setAccessible(true);
+                    method.invoke(null);
+                    passed++;
+                } catch (InvocationTargetException e) {
+                    failed++;
+                    System.err.println("FAIL " + name + ": " + e.getCause());
+                } catch (ReflectiveOperationException e) {
+                    failed++;
+                    System.err.println("FAIL " + name + ": " + e);
+                }
+            }
+        }
+        System.out.println("Tests: " + (passed + failed) + " | Passed: " + passed + " | Failed: " + failed);
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+}